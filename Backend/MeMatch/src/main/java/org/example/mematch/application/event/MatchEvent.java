@@ -0,0 +1,30 @@
+package org.example.mematch.application.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Something that happened to a pair of users, published on the {@link MatchEventBus} once the
+ * swipe that caused it has committed. A pair has at most one matches row, so the user ids identify it.
+ */
+public sealed interface MatchEvent permits MatchEvent.MatchCreated, MatchEvent.OneWayLikeCreated {
+
+    LocalDateTime occurredAt();
+
+    /**
+     * @param user1Id The user who liked first
+     * @param user2Id The user whose like completed the match
+     */
+    record MatchCreated(long user1Id, long user2Id, LocalDateTime occurredAt) implements MatchEvent {
+    }
+
+    record OneWayLikeCreated(long likerId, long likedId, LocalDateTime occurredAt) implements MatchEvent {
+    }
+
+    /**
+     * The event for a matches row a swipe just created or completed.
+     */
+    static MatchEvent ofSwipe(long user1Id, long user2Id, boolean matched) {
+        LocalDateTime now = LocalDateTime.now();
+        return matched ? new MatchCreated(user1Id, user2Id, now) : new OneWayLikeCreated(user1Id, user2Id, now);
+    }
+}
@@ -0,0 +1,272 @@
+package org.example.mematch.application.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process asynchronous bus for {@link MatchEvent}s, so side effects of a swipe never run on
+ * the request thread. Publishing is a non-blocking offer into a bounded queue; a dispatcher
+ * thread takes batches of up to {@code batch-size} events (or whatever arrived within
+ * {@code flush-interval-ms}) and hands each batch to every {@link MatchEventListener} on a fixed
+ * pool of {@code workers} threads with a bounded task queue. When the pool is saturated the
+ * dispatcher delivers the batch itself, which slows dispatching until the event queue fills.
+ *
+ * Delivery is at most once and in memory only. Events are dead-lettered, kept in a bounded
+ * in-memory list for inspection and redelivery, when the event queue is full or when a listener
+ * still fails after {@code max-attempts} tries. Queued events are delivered on graceful shutdown
+ * and lost if the process dies.
+ *
+ * Publish only after the causing transaction has committed (see AfterCommit): events are never
+ * taken back.
+ */
+@Component
+public class MatchEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchEventBus.class);
+
+    static final String ALL_LISTENERS = "*";
+
+    private final List<MatchEventListener> listeners;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxAttempts;
+    private final int deadLetterCapacity;
+    private final BlockingQueue<MatchEvent> queue;
+    private final ThreadPoolExecutor executor;
+    private final Deque<DeadLetter> deadLetters = new ArrayDeque<>();
+    private final Counter publishedCounter;
+    private final Counter queueFullCounter;
+    private final Counter listenerFailedCounter;
+    private final Timer deliveryTimer;
+    private final DistributionSummary batchSizeSummary;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public MatchEventBus(List<MatchEventListener> listeners, MeterRegistry meterRegistry,
+                         @Value("${mematch.events.queue-capacity:10000}") int queueCapacity,
+                         @Value("${mematch.events.batch-size:100}") int batchSize,
+                         @Value("${mematch.events.flush-interval-ms:20}") long flushIntervalMillis,
+                         @Value("${mematch.events.workers:2}") int workers,
+                         @Value("${mematch.events.max-attempts:3}") int maxAttempts,
+                         @Value("${mematch.events.dead-letter-capacity:1000}") int deadLetterCapacity) {
+        this.listeners = List.copyOf(listeners);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxAttempts = maxAttempts;
+        this.deadLetterCapacity = deadLetterCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 4),
+                task -> {
+                    Thread thread = new Thread(task, "match-events-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        Gauge.builder("mematch.events.queue.depth", queue, BlockingQueue::size)
+                .description("Events published but not yet dispatched")
+                .register(meterRegistry);
+        Gauge.builder("mematch.events.dead_letters.size", this, MatchEventBus::deadLetterCount)
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("mematch.events.published").register(meterRegistry);
+        this.queueFullCounter = Counter.builder("mematch.events.dead_letters")
+                .tag("reason", "queue_full").register(meterRegistry);
+        this.listenerFailedCounter = Counter.builder("mematch.events.dead_letters")
+                .tag("reason", "listener_failed").register(meterRegistry);
+        this.deliveryTimer = Timer.builder("mematch.events.delivery")
+                .description("Time for one listener to handle one batch")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("mematch.events.batch.size")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A delivery that was given up on.
+     * @param listener Listener class, or "*" if the event never reached any listener
+     */
+    public record DeadLetter(String listener, MatchEvent event, String reason, LocalDateTime failedAt) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "match-events-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Delivers what is still queued, then waits for the workers.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (running) {
+            running = false;
+            dispatcher.interrupt();
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<MatchEvent> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            dispatch(rest.subList(from, Math.min(rest.size(), from + batchSize)));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues an event for the listeners without blocking. Events published before the
+     * application is ready wait in the queue.
+     */
+    public void publish(MatchEvent event) {
+        if (queue.offer(event)) {
+            publishedCounter.increment();
+            return;
+        }
+        queueFullCounter.increment();
+        addDeadLetter(new DeadLetter(ALL_LISTENERS, event, "queue_full", LocalDateTime.now()));
+    }
+
+    /**
+     * Dead letters, oldest first.
+     */
+    public synchronized List<DeadLetter> deadLetters() {
+        return List.copyOf(deadLetters);
+    }
+
+    public synchronized int deadLetterCount() {
+        return deadLetters.size();
+    }
+
+    /**
+     * Removes every dead letter and delivers it again, to the listener that failed or, for events
+     * that never got past the queue, to all listeners. Deliveries that fail again are dead-lettered again.
+     * @return The number of dead letters taken
+     */
+    public int redeliverDeadLetters() {
+        List<DeadLetter> letters;
+        synchronized (this) {
+            letters = List.copyOf(deadLetters);
+            deadLetters.clear();
+        }
+        for (DeadLetter letter : letters) {
+            for (MatchEventListener listener : listeners) {
+                if (letter.listener().equals(ALL_LISTENERS) || letter.listener().equals(nameOf(listener))) {
+                    deliver(listener, List.of(letter.event()));
+                }
+            }
+        }
+        return letters.size();
+    }
+
+    private void dispatchLoop() {
+        List<MatchEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // stop() drains the queue; dispatch what was already taken
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                dispatch(List.copyOf(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first event, then takes more until the batch is full or the flush interval
+     * since that first event has passed.
+     */
+    void collectBatch(List<MatchEvent> batch) throws InterruptedException {
+        MatchEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            MatchEvent next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void dispatch(List<MatchEvent> batch) {
+        batchSizeSummary.record(batch.size());
+        for (MatchEventListener listener : listeners) {
+            if (executor.isShutdown()) {
+                deliver(listener, batch);
+            } else {
+                executor.execute(() -> deliver(listener, batch));
+            }
+        }
+    }
+
+    void deliver(MatchEventListener listener, List<MatchEvent> batch) {
+        long start = System.nanoTime();
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                listener.onEvents(batch);
+                deliveryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("{} failed on {} events (attempt {}/{}): {}",
+                        nameOf(listener), batch.size(), attempt, maxAttempts, e.getMessage());
+            }
+        }
+        listenerFailedCounter.increment(batch.size());
+        log.error("Dead-lettered {} events for {} after {} failed attempts", batch.size(), nameOf(listener), maxAttempts);
+        LocalDateTime now = LocalDateTime.now();
+        for (MatchEvent event : batch) {
+            addDeadLetter(new DeadLetter(nameOf(listener), event, "listener_failed", now));
+        }
+    }
+
+    private synchronized void addDeadLetter(DeadLetter letter) {
+        if (deadLetters.size() == deadLetterCapacity) {
+            deadLetters.removeFirst();
+        }
+        deadLetters.addLast(letter);
+    }
+
+    private static String nameOf(MatchEventListener listener) {
+        return listener.getClass().getSimpleName();
+    }
+
+    int queuedCount() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.mematch.application.event;
+
+import java.util.List;
+
+/**
+ * Consumer of {@link MatchEvent}s. Every listener bean receives every event, in batches, on a
+ * MatchEventBus worker thread. Batches may be delivered concurrently, so implementations must be
+ * thread-safe. Throwing makes the bus retry the whole batch and finally dead-letter it.
+ */
+public interface MatchEventListener {
+
+    void onEvents(List<MatchEvent> events);
+}
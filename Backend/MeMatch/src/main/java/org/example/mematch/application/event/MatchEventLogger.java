@@ -0,0 +1,27 @@
+package org.example.mematch.application.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Logs matches and one-way likes, off the request thread.
+ */
+@Component
+public class MatchEventLogger implements MatchEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchEventLogger.class);
+
+    @Override
+    public void onEvents(List<MatchEvent> events) {
+        for (MatchEvent event : events) {
+            if (event instanceof MatchEvent.MatchCreated m) {
+                log.info("Match created: user {} <-> user {}", m.user1Id(), m.user2Id());
+            } else if (event instanceof MatchEvent.OneWayLikeCreated l) {
+                log.debug("One-way like: user {} -> user {}", l.likerId(), l.likedId());
+            }
+        }
+    }
+}
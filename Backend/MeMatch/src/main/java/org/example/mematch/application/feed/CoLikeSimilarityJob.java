@@ -0,0 +1,217 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.infrastructure.persistence.jdbc.UserSimilarityRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.UserSimilarityRepository.Similarity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * "People who laugh at the same memes": recomputes the most similar users of every user from the
+ * {@code likes} table into {@code user_similarities}.
+ *
+ * Likes are loaded into a sparse {@link LikeMatrix}; the co-like counts of user u are row u of
+ * L × Lᵀ, computed by walking u's memes and, for each, the users who liked it, accumulating into a
+ * dense per-thread int array. Similarity is the cosine co / √(deg u · deg v). Users are split into
+ * ranges that a fork-join pool works through in parallel, each range written as one JDBC batch;
+ * a range that fails to write keeps its previous rows and the other ranges carry on.
+ */
+@Component
+public class CoLikeSimilarityJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CoLikeSimilarityJob.class);
+
+    /** Users per leaf task; also the unit of one write batch. */
+    static final int RANGE_SIZE = 128;
+    /** Cosine similarity is kept as an int for the top-K heap. */
+    static final int SCORE_SCALE = 1_000_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserSimilarityRepository userSimilarityRepository;
+    private final int similarPerUser;
+    private final int maxMemeLikers;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CoLikeSimilarityJob(JdbcTemplate jdbcTemplate, UserSimilarityRepository userSimilarityRepository,
+                               @Value("${mematch.similarity.similar-per-user:50}") int similarPerUser,
+                               @Value("${mematch.similarity.max-meme-likers:5000}") int maxMemeLikers,
+                               @Value("${mematch.similarity.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userSimilarityRepository = userSimilarityRepository;
+        this.similarPerUser = similarPerUser;
+        this.maxMemeLikers = maxMemeLikers;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Scheduled(cron = "${mematch.similarity.cron:0 30 3 * * *}")
+    public void runNightly() {
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            log.warn("Nightly co-like similarity skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the likes, runs the job and waits for it to finish.
+     * @throws IllegalStateException if the job is already running
+     */
+    public Report run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Co-like similarity is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            LikeMatrix.Builder builder = new LikeMatrix.Builder();
+            jdbcTemplate.query("SELECT user_id, meme_id FROM likes ORDER BY user_id, meme_id", rs -> {
+                builder.add(rs.getLong(1), rs.getLong(2));
+            });
+            LikeMatrix matrix = builder.build();
+            long loadMillis = (System.nanoTime() - start) / 1_000_000;
+            Report report = compute(matrix, start);
+            log.info("Co-like similarity: {} users, {} memes, {} likes loaded in {} ms; {} similarities in {} ms " +
+                            "({} users/s, parallelism {})",
+                    matrix.userCount(), matrix.memeCount(), matrix.likeCount(), loadMillis, report.similarities(),
+                    report.elapsedMillis(), Math.round(report.usersPerSecond()), parallelism);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    Report compute(LikeMatrix matrix, long startNanos) {
+        AtomicLong written = new AtomicLong();
+        if (matrix.userCount() > 0) {
+            ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(() -> new Accumulator(matrix.userCount()));
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RangeTask(matrix, accumulators, 0, matrix.userCount(), written));
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            userSimilarityRepository.replaceRange(Long.MIN_VALUE, Long.MAX_VALUE, List.of());
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        double usersPerSecond = matrix.userCount() * 1_000_000_000.0 / elapsedNanos;
+        return new Report(matrix.userCount(), written.get(), elapsedNanos / 1_000_000, usersPerSecond);
+    }
+
+    /**
+     * Computes the similar users of rows [from, to) and replaces their stored similarities.
+     */
+    void computeRange(LikeMatrix matrix, Accumulator acc, int from, int to, AtomicLong written) {
+        List<Similarity> rows = new ArrayList<>();
+        long[] similar = new long[similarPerUser];
+        int[] scores = new int[similarPerUser];
+        for (int u = from; u < to; u++) {
+            // Sparse row u of L × Lᵀ: co-like count with every user sharing a meme
+            for (int p = matrix.rowStart[u]; p < matrix.rowStart[u + 1]; p++) {
+                int meme = matrix.memeIndexes[p];
+                if (matrix.memeDegree(meme) > maxMemeLikers) {
+                    continue; // liked by nearly everyone: quadratic cost, almost no signal
+                }
+                for (int q = matrix.colStart[meme]; q < matrix.colStart[meme + 1]; q++) {
+                    int v = matrix.userIndexes[q];
+                    if (v != u && acc.counts[v]++ == 0) {
+                        acc.touched[acc.touchedCount++] = v;
+                    }
+                }
+            }
+            TopKSelector top = new TopKSelector(similarPerUser);
+            double degree = matrix.userDegree(u);
+            for (int i = 0; i < acc.touchedCount; i++) {
+                int v = acc.touched[i];
+                top.offer(v, (int) (cosine(acc.counts[v], degree, matrix.userDegree(v)) * SCORE_SCALE));
+            }
+            int n = top.drainInto(similar, scores);
+            for (int rank = 0; rank < n; rank++) {
+                int v = (int) similar[rank];
+                int coLikes = acc.counts[v];
+                rows.add(new Similarity(matrix.userIds[u], rank, matrix.userIds[v], coLikes,
+                        cosine(coLikes, degree, matrix.userDegree(v))));
+            }
+            acc.reset();
+        }
+        // Cover the id gaps up to the next range too, so users who no longer like anything lose their rows
+        long first = from == 0 ? Long.MIN_VALUE : matrix.userIds[from];
+        long last = to == matrix.userCount() ? Long.MAX_VALUE : matrix.userIds[to] - 1;
+        try {
+            userSimilarityRepository.replaceRange(first, last, rows);
+        } catch (DataAccessException e) {
+            log.warn("Co-like similarity skipped users {}..{}: {}", first, last, e.getMessage());
+            return;
+        }
+        written.addAndGet(rows.size());
+    }
+
+    private static double cosine(int coLikes, double degree1, int degree2) {
+        return coLikes / Math.sqrt(degree1 * degree2);
+    }
+
+    public record Report(int users, long similarities, long elapsedMillis, double usersPerSecond) {
+    }
+
+    /**
+     * Dense co-like counters for one worker thread, plus the list of non-zero slots so a reset
+     * costs the number of users touched rather than the number of users.
+     */
+    static final class Accumulator {
+        final int[] counts;
+        final int[] touched;
+        int touchedCount;
+
+        Accumulator(int users) {
+            this.counts = new int[users];
+            this.touched = new int[users];
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                counts[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final LikeMatrix matrix;
+        private final ThreadLocal<Accumulator> accumulators;
+        private final int from;
+        private final int to;
+        private final AtomicLong written;
+
+        RangeTask(LikeMatrix matrix, ThreadLocal<Accumulator> accumulators, int from, int to, AtomicLong written) {
+            this.matrix = matrix;
+            this.accumulators = accumulators;
+            this.from = from;
+            this.to = to;
+            this.written = written;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= RANGE_SIZE) {
+                computeRange(matrix, accumulators.get(), from, to, written);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(matrix, accumulators, from, mid, written),
+                    new RangeTask(matrix, accumulators, mid, to, written));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.mematch.application.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the feed pipeline:
+ * <ul>
+ *   <li>{@code mematch.feed.stage} timer per stage (tag {@code stage})</li>
+ *   <li>{@code mematch.feed.candidates} counters of candidates into and out of each filter
+ *       (tags {@code filter}, {@code direction=in|out})</li>
+ *   <li>{@code mematch.feed.result.size} histogram of users returned per request</li>
+ * </ul>
+ * Response serialization is covered by the {@code http.server.requests} timer of the feed URIs.
+ */
+@Component
+public class FeedMetrics {
+
+    public enum Stage {
+        LOAD_USER("load_user"),
+        LOAD_SWIPES("load_swipes"),
+        RANK("rank"),
+        HYDRATE("hydrate"),
+        FILTER("filter");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Filter {
+        GENDER("gender"),
+        AGE("age"),
+        CURSOR("cursor"),
+        EXCLUSION("exclusion"),
+        QUEUED_EXCLUSION("queued_exclusion"),
+        PAGE_GENDER("page_gender"),
+        PAGE_AGE("page_age");
+
+        private final String tag;
+
+        Filter(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Filter, Counter> candidatesIn = new EnumMap<>(Filter.class);
+    private final Map<Filter, Counter> candidatesOut = new EnumMap<>(Filter.class);
+    private final DistributionSummary resultSize;
+
+    public FeedMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("mematch.feed.stage")
+                    .description("Time spent in each stage of a feed request")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Filter filter : Filter.values()) {
+            candidatesIn.put(filter, candidates(registry, filter, "in"));
+            candidatesOut.put(filter, candidates(registry, filter, "out"));
+        }
+        this.resultSize = DistributionSummary.builder("mematch.feed.result.size")
+                .description("Users returned per feed request")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Records a stage that started at {@code startNanos} (from System.nanoTime) and just ended.
+     */
+    public void recordStage(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordScan(FeedScanStats stats) {
+        recordFilter(Filter.GENDER, stats.examined(), stats.passedGender());
+        recordFilter(Filter.AGE, stats.passedGender(), stats.passedAge());
+        recordFilter(Filter.CURSOR, stats.passedAge(), stats.passedCursor());
+        recordFilter(Filter.EXCLUSION, stats.checkedExclusion(), stats.offered());
+    }
+
+    public void recordFilter(Filter filter, int in, int out) {
+        candidatesIn.get(filter).increment(in);
+        candidatesOut.get(filter).increment(out);
+    }
+
+    public void recordResultSize(int size) {
+        resultSize.record(size);
+    }
+
+    private static Counter candidates(MeterRegistry registry, Filter filter, String direction) {
+        return Counter.builder("mematch.feed.candidates")
+                .description("Feed candidates entering (in) and passing (out) each filter")
+                .tag("filter", filter.tag)
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.infrastructure.persistence.jdbc.FeedCandidateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes the ranked feed candidates of every user into {@code feed_candidates}, for nightly
+ * cold start and after bulk imports. The sorted user ids are split into ranges that a fork-join pool
+ * works through in parallel; every worker reads the same {@link ProfileSnapshot} and
+ * {@link SwipedUserIndex}, so ranking uses the exact filters of the live feed and never queries the database.
+ * Each range is written as one JDBC batch that replaces that range's previous rows; a range that
+ * fails to write keeps its previous rows and the other ranges carry on.
+ */
+@Component
+public class FeedPrecomputeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedPrecomputeJob.class);
+
+    /** Users per leaf task; also the unit of one write batch. */
+    static final int RANGE_SIZE = 128;
+
+    private final ProfileSnapshot profileSnapshot;
+    private final SwipedUserIndex swipedUserIndex;
+    private final FeedCandidateRepository feedCandidateRepository;
+    private final int candidatesPerUser;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public FeedPrecomputeJob(ProfileSnapshot profileSnapshot, SwipedUserIndex swipedUserIndex,
+                             FeedCandidateRepository feedCandidateRepository,
+                             @Value("${mematch.feed.precompute.candidates-per-user:200}") int candidatesPerUser,
+                             @Value("${mematch.feed.precompute.parallelism:0}") int parallelism) {
+        this.profileSnapshot = profileSnapshot;
+        this.swipedUserIndex = swipedUserIndex;
+        this.feedCandidateRepository = feedCandidateRepository;
+        this.candidatesPerUser = candidatesPerUser;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Scheduled(cron = "${mematch.feed.precompute.cron:0 0 3 * * *}")
+    public void runNightly() {
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            log.warn("Nightly feed precompute skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the job and waits for it to finish.
+     * @throws IllegalStateException if the snapshot is not loaded yet or the job is already running
+     */
+    public Report run() {
+        if (!profileSnapshot.isReady() || !swipedUserIndex.isReady()) {
+            throw new IllegalStateException("Feed snapshot is not loaded yet");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Feed precompute is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            long[] userIds = profileSnapshot.userIds();
+            AtomicLong written = new AtomicLong();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RangeTask(userIds, 0, userIds.length, written));
+            } finally {
+                pool.shutdown();
+            }
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+            double usersPerSecond = userIds.length * 1_000_000_000.0 / elapsedNanos;
+            Report report = new Report(userIds.length, written.get(), elapsedNanos / 1_000_000, usersPerSecond);
+            log.info("Feed precompute: {} users, {} candidates in {} ms ({} users/s, parallelism {})",
+                    report.users(), report.candidates(), report.elapsedMillis(), Math.round(usersPerSecond), parallelism);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Ranks the users at userIds[from, to) and replaces their stored candidates.
+     */
+    void computeRange(long[] userIds, int from, int to, AtomicLong written) {
+        List<long[]> rows = new ArrayList<>();
+        long[] ids = new long[candidatesPerUser];
+        int[] scores = new int[candidatesPerUser];
+        FeedScanStats stats = new FeedScanStats();
+        for (int i = from; i < to; i++) {
+            long userId = userIds[i];
+            FeedQuery query = profileSnapshot.queryFor(userId, null);
+            if (query == null) {
+                continue; // deleted since the ids were read
+            }
+            TopKSelector top = new TopKSelector(candidatesPerUser);
+            profileSnapshot.selectTopK(query, swipedUserIndex.swipedBy(userId), top, stats);
+            int n = top.drainInto(ids, scores);
+            for (int rank = 0; rank < n; rank++) {
+                rows.add(new long[]{userId, rank, ids[rank], scores[rank]});
+            }
+        }
+        try {
+            feedCandidateRepository.replaceRange(userIds[from], userIds[to - 1], rows);
+        } catch (DataAccessException e) {
+            log.warn("Feed precompute skipped users {}..{}: {}", userIds[from], userIds[to - 1], e.getMessage());
+            return;
+        }
+        written.addAndGet(rows.size());
+    }
+
+    public record Report(int users, long candidates, long elapsedMillis, double usersPerSecond) {
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] userIds;
+        private final int from;
+        private final int to;
+        private final AtomicLong written;
+
+        RangeTask(long[] userIds, int from, int to, AtomicLong written) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+            this.written = written;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= RANGE_SIZE) {
+                if (to > from) {
+                    computeRange(userIds, from, to, written);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(userIds, from, mid, written), new RangeTask(userIds, mid, to, written));
+        }
+    }
+}
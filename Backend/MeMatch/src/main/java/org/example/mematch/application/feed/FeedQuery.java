@@ -0,0 +1,79 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.HumourTag;
+import org.example.mematch.domain.valueobjects.PageCursor;
+
+import java.util.Locale;
+
+/**
+ * The viewer-side inputs of one feed computation, detached from the User entity.
+ * @param country Viewer's country, used to rank nearby candidates first; may be null
+ * @param city Viewer's city; may be null
+ * @param after Keyset cursor (score, id) of the previous page, or null for the first page
+ */
+public record FeedQuery(long viewerId,
+                        String genderPreference,
+                        Integer ageMinPreference,
+                        Integer ageMaxPreference,
+                        int preferenceMask,
+                        String country,
+                        String city,
+                        PageCursor after) {
+
+    public static FeedQuery of(User viewer, PageCursor after) {
+        return new FeedQuery(
+                viewer.getId(),
+                viewer.getGenderPreference(),
+                viewer.getAgeMinPreference(),
+                viewer.getAgeMaxPreference(),
+                HumourTag.maskOf(viewer.getHumourTagsPreference()),
+                viewer.getCountry(),
+                viewer.getCity(),
+                after);
+    }
+
+    public boolean filtersGender() {
+        return genderPreference != null && !genderPreference.isEmpty();
+    }
+
+    public boolean filtersAge() {
+        return ageMinPreference != null && ageMaxPreference != null;
+    }
+
+    public boolean hasLocation() {
+        return normalize(country) != null;
+    }
+
+    /**
+     * Feed score of a candidate: humour compatibility plus the locality bonus for the same city
+     * (within the same country) or the same country. Every ranking path uses this formula, so a
+     * cursor stays valid whichever path serves the next page.
+     */
+    public int score(int tagMask, String candidateCountry, String candidateCity) {
+        return localityBonus(candidateCountry, candidateCity) + HumourTag.compatibility(preferenceMask, tagMask);
+    }
+
+    private int localityBonus(String candidateCountry, String candidateCity) {
+        String viewerCountry = normalize(country);
+        if (viewerCountry == null || !viewerCountry.equals(normalize(candidateCountry))) {
+            return 0;
+        }
+        String viewerCity = normalize(city);
+        return viewerCity != null && viewerCity.equals(normalize(candidateCity))
+                ? ProfileSnapshot.SAME_CITY_BONUS
+                : ProfileSnapshot.SAME_COUNTRY_BONUS;
+    }
+
+    // Locations are free text; compared the way ProfileSnapshot interns them
+    private static String normalize(String location) {
+        return location == null || location.isBlank() ? null : location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * True if a candidate with this score and id belongs after the cursor.
+     */
+    public boolean isAfterCursor(int score, long id) {
+        return after == null || TopKSelector.ranksBefore((int) after.get(0), after.get(1), score, id);
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.domain.valueobjects.PageCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precomputed feed of each active user: a bounded ring of ranked candidate ids that a feed
+ * request pops from instead of ranking on the request thread. Users that stop asking for
+ * their feed are evicted least-recently-used once {@code maxUsers} queues exist.
+ *
+ * When a queue drops below the low-water mark it is scheduled for refill; {@link FeedQueueRefresher}
+ * ranks the next candidates after the queue's tail cursor off the request thread.
+ * All methods are short critical sections on this object; ranking happens outside the lock.
+ */
+@Component
+public class FeedQueueCache {
+
+    private final int capacity;
+    private final int lowWaterMark;
+    private final int maxUsers;
+
+    private final Map<Long, FeedQueue> queues;
+    private final ArrayDeque<Long> refillRequests = new ArrayDeque<>();
+
+    public FeedQueueCache(@Value("${mematch.feed.queue.capacity:200}") int capacity,
+                          @Value("${mematch.feed.queue.low-water-mark:60}") int lowWaterMark,
+                          @Value("${mematch.feed.queue.max-users:10000}") int maxUsers) {
+        if (capacity <= 0 || lowWaterMark < 0 || lowWaterMark >= capacity || maxUsers <= 0) {
+            throw new IllegalArgumentException("Invalid feed queue configuration");
+        }
+        this.capacity = capacity;
+        this.lowWaterMark = lowWaterMark;
+        this.maxUsers = maxUsers;
+        this.queues = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FeedQueue> eldest) {
+                return size() > FeedQueueCache.this.maxUsers;
+            }
+        };
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Pops up to {@code max} candidate ids from the user's queue.
+     * @return The ids in rank order (possibly empty when the feed is exhausted),
+     *         or null when the user has no queue and the caller must rank synchronously
+     */
+    public synchronized long[] poll(long userId, int max) {
+        FeedQueue queue = queues.get(userId);
+        if (queue == null) {
+            return null;
+        }
+        long[] ids = queue.pop(max);
+        requestRefillIfLow(userId, queue);
+        return ids;
+    }
+
+    /**
+     * Creates the user's queue from a synchronous ranking, keeping the candidates after the
+     * first {@code served} ones that the caller already returned.
+     * @param exhausted True if the ranking returned every remaining candidate
+     */
+    public synchronized void prime(long userId, RankedCandidates ranked, int served, boolean exhausted) {
+        FeedQueue queue = new FeedQueue(capacity);
+        queue.append(ranked, served, exhausted);
+        queues.put(userId, queue);
+        requestRefillIfLow(userId, queue);
+    }
+
+    /**
+     * Drops the user's queue, e.g. after their preferences changed. The next feed request ranks afresh.
+     */
+    public synchronized void invalidate(long userId) {
+        queues.remove(userId);
+    }
+
+    /**
+     * Next queue to refill, or null when none is waiting. Exhausted queues restart from the top
+     * of the ranking once drained, so candidates that were skipped (not swiped) come round again.
+     */
+    synchronized RefillRequest takeRefillRequest() {
+        Long userId;
+        while ((userId = refillRequests.poll()) != null) {
+            FeedQueue queue = queues.get(userId);
+            if (queue == null) {
+                continue; // evicted or invalidated since
+            }
+            if (queue.exhausted) {
+                if (queue.size > 0) {
+                    queue.refillPending = false;
+                    continue;
+                }
+                queue.exhausted = false;
+                queue.tail = null;
+            }
+            return new RefillRequest(userId, queue, queue.tail, capacity - queue.size);
+        }
+        return null;
+    }
+
+    /**
+     * Appends a refill ranking. Discarded if the queue was invalidated or evicted while it was computed.
+     */
+    synchronized void completeRefill(RefillRequest request, RankedCandidates ranked, boolean exhausted) {
+        if (queues.get(request.userId()) != request.queue()) {
+            return;
+        }
+        request.queue().refillPending = false;
+        request.queue().append(ranked, 0, exhausted);
+    }
+
+    synchronized void cancelRefill(RefillRequest request) {
+        request.queue().refillPending = false;
+    }
+
+    public synchronized int activeQueues() {
+        return queues.size();
+    }
+
+    synchronized int queuedCount(long userId) {
+        FeedQueue queue = queues.get(userId);
+        return queue == null ? -1 : queue.size;
+    }
+
+    private void requestRefillIfLow(long userId, FeedQueue queue) {
+        if (queue.size < lowWaterMark && !queue.refillPending && !(queue.exhausted && queue.size > 0)) {
+            queue.refillPending = true;
+            refillRequests.add(userId);
+        }
+    }
+
+    /**
+     * Refill work handed to the refresher: rank up to {@code room} candidates after {@code after}.
+     */
+    record RefillRequest(long userId, FeedQueue queue, PageCursor after, int room) {
+    }
+
+    /**
+     * Ring buffer of ranked ids plus the keyset cursor of the last one enqueued.
+     */
+    static final class FeedQueue {
+        private final long[] ids;
+        private int head;
+        private int size;
+        private PageCursor tail;
+        private boolean exhausted;
+        private boolean refillPending;
+
+        FeedQueue(int capacity) {
+            this.ids = new long[capacity];
+        }
+
+        long[] pop(int max) {
+            int n = Math.min(max, size);
+            long[] popped = new long[n];
+            for (int i = 0; i < n; i++) {
+                popped[i] = ids[head];
+                head = (head + 1) % ids.length;
+            }
+            size -= n;
+            return popped;
+        }
+
+        void append(RankedCandidates ranked, int from, boolean exhausted) {
+            int n = Math.min(ranked.count() - from, ids.length - size);
+            for (int i = 0; i < n; i++) {
+                ids[(head + size) % ids.length] = ranked.ids()[from + i];
+                size++;
+            }
+            if (n > 0) {
+                tail = ranked.cursorAt(from + n - 1);
+            }
+            // Candidates that did not fit are not lost: the next refill starts after the tail
+            this.exhausted = exhausted && from + n == ranked.count();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.application.service.UserServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background refill of the feed queues that dropped below their low-water mark.
+ * Continues each user's ranking from the queue's tail cursor, so refills never repeat a queued candidate.
+ */
+@Component
+public class FeedQueueRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedQueueRefresher.class);
+
+    private final FeedQueueCache feedQueueCache;
+    private final UserServiceImpl userService;
+
+    public FeedQueueRefresher(FeedQueueCache feedQueueCache, UserServiceImpl userService) {
+        this.feedQueueCache = feedQueueCache;
+        this.userService = userService;
+    }
+
+    @Scheduled(fixedDelayString = "${mematch.feed.queue.refill-interval-ms:200}")
+    public void refill() {
+        FeedQueueCache.RefillRequest request;
+        while ((request = feedQueueCache.takeRefillRequest()) != null) {
+            try {
+                RankedCandidates ranked = userService.rankFeedCandidates(request.userId(), request.after(), request.room());
+                feedQueueCache.completeRefill(request, ranked, ranked.count() < request.room());
+            } catch (IllegalArgumentException e) {
+                // User deleted since the queue was built
+                feedQueueCache.invalidate(request.userId());
+            } catch (RuntimeException e) {
+                log.warn("Feed queue refill failed for user {}: {}", request.userId(), e.getMessage());
+                feedQueueCache.cancelRefill(request);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.mematch.application.feed;
+
+/**
+ * Candidate counts of one snapshot scan: how many profiles reached each filter and how many passed it.
+ * Filled in by {@link ProfileSnapshot#selectTopK} and reported through {@link FeedMetrics}.
+ */
+public final class FeedScanStats {
+
+    int examined;
+    int passedGender;
+    int passedAge;
+    int passedCursor;
+    int checkedExclusion;
+    int offered;
+
+    public int examined() {
+        return examined;
+    }
+
+    public int passedGender() {
+        return passedGender;
+    }
+
+    public int passedAge() {
+        return passedAge;
+    }
+
+    public int passedCursor() {
+        return passedCursor;
+    }
+
+    /**
+     * Candidates checked against the swiped-user exclusion; those that could not rank skip the check.
+     */
+    public int checkedExclusion() {
+        return checkedExclusion;
+    }
+
+    public int offered() {
+        return offered;
+    }
+}
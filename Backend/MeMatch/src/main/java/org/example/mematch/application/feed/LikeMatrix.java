@@ -0,0 +1,104 @@
+package org.example.mematch.application.feed;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sparse user × meme like matrix in compressed sparse row form, plus its transpose (meme × user),
+ * all in primitive arrays. Users and memes are renumbered densely; row u holds the memes user u
+ * liked and column m the users who liked meme m.
+ */
+final class LikeMatrix {
+
+    /** User id of each row, ascending. */
+    final long[] userIds;
+    /** Row u spans memeIndexes[rowStart[u], rowStart[u + 1]). */
+    final int[] rowStart;
+    final int[] memeIndexes;
+    /** Column m spans userIndexes[colStart[m], colStart[m + 1]). */
+    final int[] colStart;
+    final int[] userIndexes;
+
+    private LikeMatrix(long[] userIds, int[] rowStart, int[] memeIndexes, int[] colStart, int[] userIndexes) {
+        this.userIds = userIds;
+        this.rowStart = rowStart;
+        this.memeIndexes = memeIndexes;
+        this.colStart = colStart;
+        this.userIndexes = userIndexes;
+    }
+
+    int userCount() {
+        return userIds.length;
+    }
+
+    int memeCount() {
+        return colStart.length - 1;
+    }
+
+    int likeCount() {
+        return memeIndexes.length;
+    }
+
+    int userDegree(int user) {
+        return rowStart[user + 1] - rowStart[user];
+    }
+
+    int memeDegree(int meme) {
+        return colStart[meme + 1] - colStart[meme];
+    }
+
+    /**
+     * Collects (user id, meme id) likes, which must arrive ordered by user id.
+     */
+    static final class Builder {
+        private long[] userIds = new long[1024];
+        private int[] rowStart = new int[1025];
+        private int[] memeIndexes = new int[4096];
+        private int users;
+        private int likes;
+        private final Map<Long, Integer> memeIndexById = new HashMap<>();
+
+        Builder add(long userId, long memeId) {
+            if (users == 0 || userIds[users - 1] != userId) {
+                if (users > 0 && userId < userIds[users - 1]) {
+                    throw new IllegalArgumentException("Likes must be ordered by user id");
+                }
+                if (users == userIds.length) {
+                    userIds = Arrays.copyOf(userIds, users * 2);
+                    rowStart = Arrays.copyOf(rowStart, users * 2 + 1);
+                }
+                userIds[users] = userId;
+                rowStart[users] = likes;
+                users++;
+            }
+            if (likes == memeIndexes.length) {
+                memeIndexes = Arrays.copyOf(memeIndexes, likes * 2);
+            }
+            memeIndexes[likes++] = memeIndexById.computeIfAbsent(memeId, id -> memeIndexById.size());
+            return this;
+        }
+
+        LikeMatrix build() {
+            rowStart[users] = likes;
+            int memes = memeIndexById.size();
+            // Transpose with a counting sort: column sizes, prefix sums, then fill
+            int[] colStart = new int[memes + 1];
+            for (int i = 0; i < likes; i++) {
+                colStart[memeIndexes[i] + 1]++;
+            }
+            for (int m = 0; m < memes; m++) {
+                colStart[m + 1] += colStart[m];
+            }
+            int[] next = Arrays.copyOf(colStart, memes);
+            int[] userIndexes = new int[likes];
+            for (int u = 0; u < users; u++) {
+                for (int p = rowStart[u]; p < rowStart[u + 1]; p++) {
+                    userIndexes[next[memeIndexes[p]]++] = u;
+                }
+            }
+            return new LikeMatrix(Arrays.copyOf(userIds, users), Arrays.copyOf(rowStart, users + 1),
+                    Arrays.copyOf(memeIndexes, likes), colStart, userIndexes);
+        }
+    }
+}
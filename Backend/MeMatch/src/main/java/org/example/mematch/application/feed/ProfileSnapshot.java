@@ -0,0 +1,516 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.HumourTag;
+import org.example.mematch.domain.valueobjects.PageCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Read-optimized, column-oriented copy of the profile fields the feed filters and ranks on:
+ * one primitive array per field (id, age, gender code, humour tag mask, location codes), indexed by slot.
+ * Scanning it touches no entities and no database, and allocates nothing per candidate.
+ * The viewer-side preferences are kept too, so batch jobs can build every user's {@link FeedQuery}
+ * without loading entities.
+ *
+ * Slots are also partitioned by location (country → city → slots), so a feed scans the viewer's
+ * city first, then the rest of their country, and only reaches other countries when the nearer
+ * partitions cannot fill the page.
+ *
+ * Loaded once at startup and kept current by the user write paths through {@link #upsert(User)}.
+ * Until the first load finishes {@link #isReady()} is false and callers fall back to SQL.
+ */
+@Component
+public class ProfileSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileSnapshot.class);
+
+    static final int NO_AGE = Integer.MIN_VALUE;
+    static final int NO_GENDER = 0;
+    static final int NO_LOCATION = 0;
+    private static final int UNKNOWN_CODE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Score added per locality tier; larger than any humour compatibility (at most 32),
+     * so a nearer candidate always ranks before a farther one.
+     */
+    static final int TIER_WEIGHT = 64;
+    static final int SAME_CITY_BONUS = 2 * TIER_WEIGHT;
+    static final int SAME_COUNTRY_BONUS = TIER_WEIGHT;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Gender and location values are free text; each distinct lower-cased value gets a small int code
+    private final CodeTable genders = new CodeTable();
+    private final CodeTable locations = new CodeTable();
+
+    private Columns columns = new Columns();
+
+    private volatile boolean ready;
+    // Upserts that arrive while a load is running, re-applied on top of the loaded data
+    private List<Row> upsertsDuringLoad;
+
+    public ProfileSnapshot(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("Profile snapshot could not be loaded, feed will use SQL: {}", e.getMessage());
+        }
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            upsertsDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns loaded = new Columns();
+        jdbcTemplate.query("SELECT id, age, gender, country, city, gender_preference, age_min_preference, age_max_preference " +
+                "FROM users ORDER BY id", rs -> {
+            loaded.put(new Row(rs.getLong(1), ageOrNone(rs.getInt(2), rs.wasNull()), rs.getString(3),
+                    rs.getString(4), rs.getString(5), 0,
+                    rs.getString(6), ageOrNone(rs.getInt(7), rs.wasNull()), ageOrNone(rs.getInt(8), rs.wasNull()), 0));
+        });
+        jdbcTemplate.query("SELECT user_id, tag FROM user_humour_tags", rs -> {
+            Integer slot = loaded.slotById.get(rs.getLong(1));
+            if (slot != null) {
+                loaded.tagMasks[slot] |= tagBit(rs.getString(2));
+            }
+        });
+        jdbcTemplate.query("SELECT user_id, tag FROM user_humour_preferences", rs -> {
+            Integer slot = loaded.slotById.get(rs.getLong(1));
+            if (slot != null) {
+                loaded.preferenceMasks[slot] |= tagBit(rs.getString(2));
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            columns = loaded;
+            for (Row pending : upsertsDuringLoad) {
+                columns.put(pending);
+            }
+            upsertsDuringLoad = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Profile snapshot loaded: {} users in {} location partitions in {} ms",
+                size(), partitionCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every profile, ascending.
+     */
+    public long[] userIds() {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = Arrays.copyOf(columns.ids, columns.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * The feed query of a user built from their snapshot row, or null if the user is not in the snapshot.
+     */
+    public FeedQuery queryFor(long userId, PageCursor after) {
+        lock.readLock().lock();
+        try {
+            Integer slot = columns.slotById.get(userId);
+            if (slot == null) {
+                return null;
+            }
+            int ageMin = columns.ageMinPreferences[slot];
+            int ageMax = columns.ageMaxPreferences[slot];
+            return new FeedQuery(userId,
+                    columns.genderPreferences[slot],
+                    ageMin == NO_AGE ? null : ageMin,
+                    ageMax == NO_AGE ? null : ageMax,
+                    columns.preferenceMasks[slot],
+                    locations.valueOf(columns.countryCodes[slot]),
+                    locations.valueOf(columns.cityCodes[slot]),
+                    after);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or refreshes the snapshot row of a user. Call after the change is committed.
+     */
+    public void upsert(User user) {
+        Row row = new Row(user.getId(),
+                user.getAge() != null ? user.getAge() : NO_AGE,
+                user.getGender(), user.getCountry(), user.getCity(),
+                HumourTag.maskOf(user.getHumourTags()),
+                user.getGenderPreference(),
+                user.getAgeMinPreference() != null ? user.getAgeMinPreference() : NO_AGE,
+                user.getAgeMaxPreference() != null ? user.getAgeMaxPreference() : NO_AGE,
+                HumourTag.maskOf(user.getHumourTagsPreference()));
+        lock.writeLock().lock();
+        try {
+            if (upsertsDuringLoad != null) {
+                upsertsDuringLoad.add(row);
+            }
+            columns.put(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Offers the profiles passing the viewer's filters to {@code top}, nearest location first.
+     * Each candidate's score is its humour compatibility plus a locality bonus (same city, same country),
+     * so the ranking is by tier, then compatibility, then id. A farther tier is only scanned while it
+     * could still place a candidate in {@code top}.
+     * Filters run cheapest first; the exclusion check runs last, only for candidates that would rank.
+     * Safe to call from many threads at once.
+     * @param query Viewer preferences, location and cursor
+     * @param excluded Users the viewer must not see (already matched or swiped)
+     * @param top Receives (id, score) of every eligible candidate
+     * @param stats Receives the number of candidates into and out of each filter
+     */
+    public void selectTopK(FeedQuery query, LongPredicate excluded, TopKSelector top, FeedScanStats stats) {
+        lock.readLock().lock();
+        try {
+            boolean filterGender = query.filtersGender();
+            int wantedGender = filterGender ? genders.codeOf(query.genderPreference()) : NO_GENDER;
+            if (filterGender && wantedGender == UNKNOWN_CODE) {
+                return; // nobody has that gender
+            }
+            Scan scan = new Scan(columns, query, filterGender, wantedGender, excluded, top);
+            try {
+                scanNearestFirst(query, scan, top);
+            } finally {
+                scan.reportTo(stats);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private void scanNearestFirst(FeedQuery query, Scan scan, TopKSelector top) {
+        Map<Integer, Map<Integer, SlotList>> partitions = columns.partitions;
+        int viewerCountry = locations.codeOf(query.country());
+        Map<Integer, SlotList> country = viewerCountry > NO_LOCATION ? partitions.get(viewerCountry) : null;
+        if (country == null) {
+            // No locality to prefer: one pass over the columns
+            for (int i = 0; i < columns.size; i++) {
+                scan.offer(i, 0);
+            }
+            return;
+        }
+
+        int viewerCity = locations.codeOf(query.city());
+        SlotList city = viewerCity > NO_LOCATION ? country.get(viewerCity) : null;
+        if (city != null) {
+            scan.offerAll(city, SAME_CITY_BONUS);
+            if (top.isFull() && top.worstScore() >= SAME_CITY_BONUS) {
+                return;
+            }
+        }
+        for (SlotList slots : country.values()) {
+            if (slots != city) {
+                scan.offerAll(slots, SAME_COUNTRY_BONUS);
+            }
+        }
+        if (top.isFull() && top.worstScore() >= SAME_COUNTRY_BONUS) {
+            return;
+        }
+        // Fallback: the viewer's country cannot fill the page on its own
+        for (Map.Entry<Integer, Map<Integer, SlotList>> other : partitions.entrySet()) {
+            if (other.getKey() != viewerCountry) {
+                for (SlotList slots : other.getValue().values()) {
+                    scan.offerAll(slots, 0);
+                }
+            }
+        }
+    }
+
+    private int partitionCount() {
+        lock.readLock().lock();
+        try {
+            return columns.partitions.values().stream().mapToInt(Map::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int ageOrNone(int age, boolean wasNull) {
+        return wasNull ? NO_AGE : age;
+    }
+
+    private static int tagBit(String tag) {
+        try {
+            return HumourTag.valueOf(tag).bit();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * One user's values, as written by an upsert or read by a load.
+     */
+    private record Row(long id, int age, String gender, String country, String city, int tagMask,
+                       String genderPreference, int ageMinPreference, int ageMaxPreference, int preferenceMask) {
+    }
+
+    /**
+     * Interned codes of a free-text column, compared case-insensitively.
+     */
+    private static final class CodeTable {
+        private final Map<String, Integer> codeByValue = new HashMap<>();
+        private final List<String> valueByCode = new ArrayList<>(List.of(""));
+
+        synchronized int intern(String value) {
+            if (value == null || value.isBlank()) {
+                return 0;
+            }
+            return codeByValue.computeIfAbsent(value.trim().toLowerCase(Locale.ROOT), v -> {
+                valueByCode.add(v);
+                return valueByCode.size() - 1;
+            });
+        }
+
+        synchronized int codeOf(String value) {
+            if (value == null || value.isBlank()) {
+                return UNKNOWN_CODE;
+            }
+            return codeByValue.getOrDefault(value.trim().toLowerCase(Locale.ROOT), UNKNOWN_CODE);
+        }
+
+        synchronized String valueOf(int code) {
+            return code == 0 ? null : valueByCode.get(code);
+        }
+    }
+
+    /**
+     * Growable array of the slots in one location partition.
+     */
+    private static final class SlotList {
+        int[] slots = new int[8];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The columns and their location partitions. The live instance is guarded by the snapshot lock;
+     * a load builds a fresh one outside the lock and swaps it in.
+     */
+    private final class Columns {
+        // Candidate side; slot i of every array describes the same user
+        long[] ids = new long[INITIAL_CAPACITY];
+        int[] ages = new int[INITIAL_CAPACITY];
+        int[] genderCodes = new int[INITIAL_CAPACITY];
+        int[] tagMasks = new int[INITIAL_CAPACITY];
+        int[] countryCodes = new int[INITIAL_CAPACITY];
+        int[] cityCodes = new int[INITIAL_CAPACITY];
+        // Viewer side
+        String[] genderPreferences = new String[INITIAL_CAPACITY];
+        int[] ageMinPreferences = new int[INITIAL_CAPACITY];
+        int[] ageMaxPreferences = new int[INITIAL_CAPACITY];
+        int[] preferenceMasks = new int[INITIAL_CAPACITY];
+        int size;
+
+        final Map<Long, Integer> slotById = new HashMap<>();
+        // country code -> city code -> slots of the users living there
+        final Map<Integer, Map<Integer, SlotList>> partitions = new HashMap<>();
+
+        void put(Row row) {
+            int countryCode = locations.intern(row.country());
+            int cityCode = locations.intern(row.city());
+            Integer slot = slotById.get(row.id());
+            if (slot == null) {
+                if (size == ids.length) {
+                    grow(ids.length * 2);
+                }
+                slot = size++;
+                slotById.put(row.id(), slot);
+                ids[slot] = row.id();
+                addToPartition(countryCode, cityCode, slot);
+            } else if (countryCodes[slot] != countryCode || cityCodes[slot] != cityCode) {
+                removeFromPartition(countryCodes[slot], cityCodes[slot], slot);
+                addToPartition(countryCode, cityCode, slot);
+            }
+            ages[slot] = row.age();
+            genderCodes[slot] = genders.intern(row.gender());
+            tagMasks[slot] = row.tagMask();
+            countryCodes[slot] = countryCode;
+            cityCodes[slot] = cityCode;
+            genderPreferences[slot] = row.genderPreference();
+            ageMinPreferences[slot] = row.ageMinPreference();
+            ageMaxPreferences[slot] = row.ageMaxPreference();
+            preferenceMasks[slot] = row.preferenceMask();
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            genderCodes = Arrays.copyOf(genderCodes, capacity);
+            tagMasks = Arrays.copyOf(tagMasks, capacity);
+            countryCodes = Arrays.copyOf(countryCodes, capacity);
+            cityCodes = Arrays.copyOf(cityCodes, capacity);
+            genderPreferences = Arrays.copyOf(genderPreferences, capacity);
+            ageMinPreferences = Arrays.copyOf(ageMinPreferences, capacity);
+            ageMaxPreferences = Arrays.copyOf(ageMaxPreferences, capacity);
+            preferenceMasks = Arrays.copyOf(preferenceMasks, capacity);
+        }
+
+        private void addToPartition(int countryCode, int cityCode, int slot) {
+            partitions.computeIfAbsent(countryCode, c -> new HashMap<>())
+                    .computeIfAbsent(cityCode, c -> new SlotList())
+                    .add(slot);
+        }
+
+        private void removeFromPartition(int countryCode, int cityCode, int slot) {
+            Map<Integer, SlotList> country = partitions.get(countryCode);
+            SlotList slots = country.get(cityCode);
+            slots.remove(slot);
+            if (slots.size == 0) {
+                country.remove(cityCode);
+                if (country.isEmpty()) {
+                    partitions.remove(countryCode);
+                }
+            }
+        }
+    }
+
+    /**
+     * The filters of one selectTopK call, hoisted out of the per-candidate loop.
+     * Caller holds the read lock for the lifetime of the scan.
+     */
+    private static final class Scan {
+        final long[] ids;
+        final int[] ages;
+        final int[] genderCodes;
+        final int[] tagMasks;
+        final long viewerId;
+        final boolean filterGender;
+        final int wantedGender;
+        final boolean filterAge;
+        final int ageMin;
+        final int ageMax;
+        final int preferenceMask;
+        final FeedQuery query;
+        final LongPredicate excluded;
+        final TopKSelector top;
+        // Filter counts, kept in fields of the scan and copied out once at the end
+        int examined;
+        int passedGender;
+        int passedAge;
+        int passedCursor;
+        int checkedExclusion;
+        int offered;
+
+        Scan(Columns columns, FeedQuery query, boolean filterGender, int wantedGender, LongPredicate excluded, TopKSelector top) {
+            this.ids = columns.ids;
+            this.ages = columns.ages;
+            this.genderCodes = columns.genderCodes;
+            this.tagMasks = columns.tagMasks;
+            this.viewerId = query.viewerId();
+            this.filterGender = filterGender;
+            this.wantedGender = wantedGender;
+            this.filterAge = query.filtersAge();
+            this.ageMin = filterAge ? query.ageMinPreference() : 0;
+            this.ageMax = filterAge ? query.ageMaxPreference() : 0;
+            this.preferenceMask = query.preferenceMask();
+            this.query = query;
+            this.excluded = excluded;
+            this.top = top;
+        }
+
+        void offerAll(SlotList slots, int bonus) {
+            int[] partition = slots.slots;
+            int n = slots.size;
+            for (int i = 0; i < n; i++) {
+                offer(partition[i], bonus);
+            }
+        }
+
+        void offer(int slot, int bonus) {
+            long id = ids[slot];
+            if (id == viewerId) return;
+            examined++;
+            if (filterGender && genderCodes[slot] != wantedGender) return;
+            passedGender++;
+            if (filterAge) {
+                int age = ages[slot];
+                if (age == NO_AGE || age < ageMin || age > ageMax) return;
+            }
+            passedAge++;
+            int score = bonus + Integer.bitCount(preferenceMask & tagMasks[slot]);
+            if (!query.isAfterCursor(score, id)) return;
+            passedCursor++;
+            if (top.isFull() && score < top.worstScore()) return;
+            checkedExclusion++;
+            if (excluded.test(id)) return;
+            offered++;
+            top.offer(id, score);
+        }
+
+        void reportTo(FeedScanStats stats) {
+            stats.examined += examined;
+            stats.passedGender += passedGender;
+            stats.passedAge += passedAge;
+            stats.passedCursor += passedCursor;
+            stats.checkedExclusion += checkedExclusion;
+            stats.offered += offered;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.domain.valueobjects.PageCursor;
+
+/**
+ * Result of ranking feed candidates, best first.
+ * @param ids Candidate ids; only the first {@code count} entries are valid
+ * @param scores Compatibility score of each candidate
+ * @param count Number of candidates found
+ */
+public record RankedCandidates(long[] ids, int[] scores, int count) {
+
+    public static RankedCandidates empty() {
+        return new RankedCandidates(new long[0], new int[0], 0);
+    }
+
+    /**
+     * Keyset cursor positioned on the candidate at {@code index}.
+     */
+    public PageCursor cursorAt(int index) {
+        return PageCursor.of(scores[index], ids[index]);
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.infrastructure.collections.RoaringLongBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Per-user compressed bitmaps of the users someone has already swiped on: everyone they liked
+ * (one-way or matched) plus everyone they are matched with, and separately just the matches.
+ * The feed consults it once per candidate, and like/match checks answer from it, instead of
+ * querying the matches table.
+ *
+ * Loaded from {@code matches} at startup and updated by MatchServiceImpl after each commit.
+ * Swipes recorded or removed while the load runs are replayed over it once the scan is done,
+ * so a row the scan read just before it was deleted does not come back.
+ */
+@Component
+public class SwipedUserIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SwipedUserIndex.class);
+    private static final LongPredicate NOTHING_SWIPED = id -> false;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, RoaringLongBitmap> swipedByUser = new ConcurrentHashMap<>();
+    private final Map<Long, RoaringLongBitmap> matchedByUser = new ConcurrentHashMap<>();
+    // Latest change per pair while a load runs, null otherwise; guarded by loadLock
+    private final Object loadLock = new Object();
+    private volatile Map<Pair, SwipeChange> changedWhileLoading;
+    private volatile boolean ready;
+
+    public SwipedUserIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("Swiped-user index could not be loaded, feed will query matches: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds every existing swipe. Writes that happen during the load go straight into the live
+     * bitmaps and are also noted per pair; after the scan each noted pair is reset to its latest
+     * change, since the scan may have read the row before or after that change.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (loadLock) {
+            changedWhileLoading = new HashMap<>();
+        }
+        try {
+            jdbcTemplate.query("SELECT user1_id, user2_id, matched FROM matches", rs -> {
+                applySwipe(rs.getLong(1), rs.getLong(2), rs.getBoolean(3));
+            });
+            synchronized (loadLock) {
+                for (SwipeChange change : changedWhileLoading.values()) {
+                    applyRemoval(change.likerId(), change.likedId(), true);
+                    if (!change.removed()) {
+                        applySwipe(change.likerId(), change.likedId(), change.matched());
+                    }
+                }
+                ready = true;
+            }
+        } finally {
+            synchronized (loadLock) {
+                changedWhileLoading = null;
+            }
+        }
+        log.info("Swiped-user index loaded: {} users, {} swipes, {} bytes in {} ms",
+                swipedByUser.size(), swipeCount(), memoryFootprintBytes(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records the state of one matches row: the liker (user1) swiped on user2,
+     * and when matched the reverse swipe exists too.
+     */
+    public void recordSwipe(long likerId, long likedId, boolean matched) {
+        if (changedWhileLoading != null) {
+            synchronized (loadLock) {
+                noteChange(new SwipeChange(likerId, likedId, matched, false));
+                applySwipe(likerId, likedId, matched);
+            }
+            return;
+        }
+        applySwipe(likerId, likedId, matched);
+    }
+
+    /**
+     * Forgets a deleted matches row.
+     */
+    public void removeSwipe(long likerId, long likedId, boolean matched) {
+        if (changedWhileLoading != null) {
+            synchronized (loadLock) {
+                noteChange(new SwipeChange(likerId, likedId, matched, true));
+                applyRemoval(likerId, likedId, matched);
+            }
+            return;
+        }
+        applyRemoval(likerId, likedId, matched);
+    }
+
+    public boolean hasSwiped(long userId, long otherUserId) {
+        return contains(swipedByUser, userId, otherUserId);
+    }
+
+    public boolean areMatched(long userId, long otherUserId) {
+        return contains(matchedByUser, userId, otherUserId);
+    }
+
+    public boolean hasMatches(long userId) {
+        RoaringLongBitmap matched = matchedByUser.get(userId);
+        if (matched == null) {
+            return false;
+        }
+        synchronized (matched) {
+            return !matched.isEmpty();
+        }
+    }
+
+    /**
+     * Point-in-time copy of a user's swipes as a predicate, so a feed scan can test
+     * candidates without locking.
+     */
+    public LongPredicate swipedBy(long userId) {
+        RoaringLongBitmap swiped = swipedByUser.get(userId);
+        if (swiped == null) {
+            return NOTHING_SWIPED;
+        }
+        RoaringLongBitmap copy;
+        synchronized (swiped) {
+            copy = swiped.copy();
+        }
+        return copy::contains;
+    }
+
+    public long swipeCount() {
+        long count = 0;
+        for (RoaringLongBitmap swiped : swipedByUser.values()) {
+            synchronized (swiped) {
+                count += swiped.cardinality();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Approximate heap used by the bitmaps and their map entries.
+     */
+    public long memoryFootprintBytes() {
+        return footprintOf(swipedByUser) + footprintOf(matchedByUser);
+    }
+
+    private void applySwipe(long likerId, long likedId, boolean matched) {
+        add(swipedByUser, likerId, likedId);
+        if (matched) {
+            add(swipedByUser, likedId, likerId);
+            add(matchedByUser, likerId, likedId);
+            add(matchedByUser, likedId, likerId);
+        }
+    }
+
+    private void applyRemoval(long likerId, long likedId, boolean matched) {
+        remove(swipedByUser, likerId, likedId);
+        if (matched) {
+            remove(swipedByUser, likedId, likerId);
+            remove(matchedByUser, likerId, likedId);
+            remove(matchedByUser, likedId, likerId);
+        }
+    }
+
+    // Caller holds loadLock
+    private void noteChange(SwipeChange change) {
+        if (changedWhileLoading != null) {
+            changedWhileLoading.put(Pair.of(change.likerId(), change.likedId()), change);
+        }
+    }
+
+    private static long footprintOf(Map<Long, RoaringLongBitmap> bitmaps) {
+        long bytes = 0;
+        for (RoaringLongBitmap bitmap : bitmaps.values()) {
+            synchronized (bitmap) {
+                bytes += bitmap.sizeInBytes();
+            }
+            bytes += 64; // map node and boxed key
+        }
+        return bytes;
+    }
+
+    private static boolean contains(Map<Long, RoaringLongBitmap> bitmaps, long userId, long otherUserId) {
+        RoaringLongBitmap bitmap = bitmaps.get(userId);
+        if (bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            return bitmap.contains(otherUserId);
+        }
+    }
+
+    private static void add(Map<Long, RoaringLongBitmap> bitmaps, long userId, long otherUserId) {
+        RoaringLongBitmap bitmap = bitmaps.computeIfAbsent(userId, id -> new RoaringLongBitmap());
+        synchronized (bitmap) {
+            bitmap.add(otherUserId);
+        }
+    }
+
+    private static void remove(Map<Long, RoaringLongBitmap> bitmaps, long userId, long otherUserId) {
+        RoaringLongBitmap bitmap = bitmaps.get(userId);
+        if (bitmap != null) {
+            synchronized (bitmap) {
+                bitmap.remove(otherUserId);
+            }
+        }
+    }
+
+    private record Pair(long lowId, long highId) {
+        static Pair of(long userId, long otherUserId) {
+            return new Pair(Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+        }
+    }
+
+    private record SwipeChange(long likerId, long likedId, boolean matched, boolean removed) {
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.mematch.application.feed;
+
+/**
+ * Keeps the best K (score, id) pairs seen so far in a bounded min-heap backed by primitive arrays,
+ * so offering a candidate never allocates. Higher scores rank first; ties go to the lower id,
+ * which keeps the order stable between requests.
+ */
+public final class TopKSelector {
+
+    private final long[] ids;
+    private final int[] scores;
+    private int size;
+
+    public TopKSelector(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.ids = new long[k];
+        this.scores = new int[k];
+    }
+
+    /**
+     * True if (score1, id1) ranks before (score2, id2).
+     */
+    public static boolean ranksBefore(int score1, long id1, int score2, long id2) {
+        return score1 > score2 || (score1 == score2 && id1 < id2);
+    }
+
+    public void offer(long id, int score) {
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (ranksBefore(score, id, scores[0], ids[0])) {
+            // Root is the worst of the current top K
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == ids.length;
+    }
+
+    /**
+     * Worst score currently kept; only meaningful when {@link #isFull()}.
+     */
+    public int worstScore() {
+        return scores[0];
+    }
+
+    /**
+     * Empties the selector into the given arrays, best first.
+     * @return Number of entries written
+     */
+    public int drainInto(long[] outIds, int[] outScores) {
+        int n = size;
+        for (int i = n - 1; i >= 0; i--) {
+            outIds[i] = ids[0];
+            outScores[i] = scores[0];
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return n;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksBefore(scores[parent], ids[parent], scores[i], ids[i])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && ranksBefore(scores[worst], ids[worst], scores[right], ids[right])) {
+                worst = right;
+            }
+            if (!ranksBefore(scores[i], ids[i], scores[worst], ids[worst])) {
+                break;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        int score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.mematch.application.like;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.mematch.infrastructure.collections.RoaringLongBitmap;
+import org.example.mematch.infrastructure.persistence.jdbc.UserLikeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The memes each active user has liked, as a compressed bitmap per user, so "liked by me" checks
+ * on every meme a user scrolls past are answered from memory. A user's bitmap is loaded with one
+ * query on their first check and kept current by LikeServiceImpl after each commit. Users that
+ * stop checking are evicted once {@code max-users} bitmaps exist, oldest first from a load-order
+ * queue; a user checked since they were queued gets a second chance at the back instead, which
+ * approximates least-recently-used without a hit ever touching the queue.
+ *
+ * A load that overlaps a like or unlike of the same user is answered but not cached, since it
+ * cannot tell whether its query saw that change; the next check loads again.
+ * Checks of different users never wait on each other: a hit only locks that user's bitmap, and
+ * a like or unlike is ordered against that user's loads by a per-user entry in {@code loads}.
+ */
+@Component
+public class LikedMemeCache {
+
+    private final UserLikeRepository userLikeRepository;
+    private final int maxUsers;
+    private final Map<Long, Cached> likedByUser = new ConcurrentHashMap<>();
+    // Loads in progress per user; an entry is only changed inside loads.compute
+    private final Map<Long, Load> loads = new ConcurrentHashMap<>();
+    // Every cached bitmap, in the order it was loaded or last given a second chance
+    private final ConcurrentLinkedQueue<Cached> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    public LikedMemeCache(UserLikeRepository userLikeRepository, MeterRegistry meterRegistry,
+                          @Value("${mematch.likes.liked-cache.max-users:10000}") int maxUsers) {
+        if (maxUsers <= 0) {
+            throw new IllegalArgumentException("Invalid liked meme cache configuration");
+        }
+        this.userLikeRepository = userLikeRepository;
+        this.maxUsers = maxUsers;
+        this.hitCounter = Counter.builder("mematch.likes.liked_cache.requests")
+                .tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("mematch.likes.liked_cache.requests")
+                .tag("result", "miss").register(meterRegistry);
+        this.evictionCounter = Counter.builder("mematch.likes.liked_cache.evictions").register(meterRegistry);
+        Gauge.builder("mematch.likes.liked_cache.hit_ratio", this, LikedMemeCache::hitRatio)
+                .description("Share of checks answered without a query")
+                .register(meterRegistry);
+        Gauge.builder("mematch.likes.liked_cache.users", this, LikedMemeCache::cachedUsers)
+                .register(meterRegistry);
+    }
+
+    public boolean hasLiked(long userId, long memeId) {
+        return read(userId, liked -> liked.contains(memeId));
+    }
+
+    /**
+     * The subset of {@code memeIds} the user has liked.
+     */
+    public Set<Long> likedAmong(long userId, Collection<Long> memeIds) {
+        return read(userId, liked -> {
+            Set<Long> result = new HashSet<>();
+            for (Long memeId : memeIds) {
+                if (liked.contains(memeId)) {
+                    result.add(memeId);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Applies a committed like or unlike.
+     */
+    public void update(long userId, long memeId, boolean liked) {
+        loads.compute(userId, (id, load) -> {
+            Cached cached = likedByUser.get(userId);
+            if (cached != null) {
+                synchronized (cached.bitmap) {
+                    if (liked) {
+                        cached.bitmap.add(memeId);
+                    } else {
+                        cached.bitmap.remove(memeId);
+                    }
+                }
+            }
+            if (load != null) {
+                load.changed = true;
+            }
+            return load;
+        });
+    }
+
+    public int cachedUsers() {
+        return likedByUser.size();
+    }
+
+    double hitRatio() {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private <T> T read(long userId, Function<RoaringLongBitmap, T> reader) {
+        Cached cached = likedByUser.get(userId);
+        if (cached != null) {
+            hitCounter.increment();
+            cached.lastAccess = clock.incrementAndGet();
+            synchronized (cached.bitmap) {
+                return reader.apply(cached.bitmap);
+            }
+        }
+        missCounter.increment();
+        loads.compute(userId, (id, load) -> {
+            Load started = load == null ? new Load() : load;
+            started.inFlight++;
+            return started;
+        });
+        RoaringLongBitmap loaded = new RoaringLongBitmap();
+        try {
+            userLikeRepository.findLikedMemeIds(userId, loaded::add);
+        } catch (RuntimeException e) {
+            loads.compute(userId, (id, load) -> finishLoad(load));
+            throw e;
+        }
+        // Cache under the same per-user entry update() takes, so no change slips in between
+        loads.compute(userId, (id, load) -> {
+            if (!load.changed) {
+                Cached fresh = new Cached(userId, loaded, clock.incrementAndGet());
+                if (likedByUser.putIfAbsent(userId, fresh) == null) {
+                    evictionOrder.add(fresh);
+                }
+            }
+            return finishLoad(load);
+        });
+        evictIfFull();
+        Cached current = likedByUser.get(userId);
+        RoaringLongBitmap liked = current != null ? current.bitmap : loaded;
+        synchronized (liked) {
+            return reader.apply(liked);
+        }
+    }
+
+    private static Load finishLoad(Load load) {
+        return --load.inFlight == 0 ? null : load;
+    }
+
+    // Drops users not checked since they were queued; one thread at a time, the others carry on
+    private void evictIfFull() {
+        while (likedByUser.size() > maxUsers && evicting.compareAndSet(false, true)) {
+            try {
+                Cached eldest;
+                while (likedByUser.size() > maxUsers && (eldest = evictionOrder.poll()) != null) {
+                    long lastAccess = eldest.lastAccess;
+                    if (lastAccess != eldest.queuedAt) {
+                        eldest.queuedAt = lastAccess;
+                        evictionOrder.add(eldest);
+                    } else if (likedByUser.remove(eldest.userId, eldest)) {
+                        evictionCounter.increment();
+                    }
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private static final class Cached {
+        final long userId;
+        final RoaringLongBitmap bitmap;
+        volatile long lastAccess;
+        // lastAccess when last put in evictionOrder; only the evicting thread reads or moves it
+        long queuedAt;
+
+        Cached(long userId, RoaringLongBitmap bitmap, long lastAccess) {
+            this.userId = userId;
+            this.bitmap = bitmap;
+            this.lastAccess = lastAccess;
+            this.queuedAt = lastAccess;
+        }
+    }
+
+    private static final class Load {
+        int inFlight;
+        boolean changed;
+    }
+}
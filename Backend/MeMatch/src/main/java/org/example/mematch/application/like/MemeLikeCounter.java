@@ -0,0 +1,269 @@
+package org.example.mematch.application.like;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.mematch.infrastructure.persistence.jdbc.MemeLikeCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Like count of every meme, kept in memory so count reads never touch the database. Each meme
+ * has a striped LongAdder, so concurrent likes on a popular meme do not contend on one value.
+ *
+ * Seeded from a grouped count over {@code likes} at startup and updated by LikeServiceImpl after
+ * each commit. Changed counts are written to {@code memes.like_count} every
+ * {@code flush-interval-ms} and on shutdown, for queries and exports that need them in SQL.
+ * Until the seed is in, reads fall back to counting in the database. Deleted memes are dropped,
+ * and a nightly reconcile recounts everything to fix drift and forget memes removed by cascade.
+ */
+@Component
+public class MemeLikeCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(MemeLikeCounter.class);
+
+    private final MemeLikeCountRepository memeLikeCountRepository;
+    private final Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Memes changed before the seed was in; recounted afterwards since the seed may or may not include those changes.
+    // Guarded by loadLock, which add() also takes until the seed is in
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private final Object loadLock = new Object();
+    // Memes changed while a reconcile runs, left for the next one; null otherwise
+    private volatile Set<Long> changedWhileReconciling;
+    private final Counter flushedCounter;
+    private final Counter correctedCounter;
+    private final Timer flushTimer;
+    private volatile boolean ready;
+
+    public MemeLikeCounter(MemeLikeCountRepository memeLikeCountRepository, MeterRegistry meterRegistry) {
+        this.memeLikeCountRepository = memeLikeCountRepository;
+        Gauge.builder("mematch.likes.counts.memes", counts, Map::size)
+                .description("Memes with an in-memory like counter")
+                .register(meterRegistry);
+        Gauge.builder("mematch.likes.counts.dirty", dirty, Set::size)
+                .description("Counters changed since the last flush")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("mematch.likes.counts.flushed")
+                .description("like_count values written by flushes")
+                .register(meterRegistry);
+        this.correctedCounter = Counter.builder("mematch.likes.counts.corrected")
+                .description("Counters fixed by reconcile")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("mematch.likes.counts.flush").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("Meme like counts could not be loaded, counts will be queried: {}", e.getMessage());
+        }
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        memeLikeCountRepository.countAll((memeId, count) -> counterOf(memeId).add(count));
+        // Changes recorded meanwhile wait here, so none lands between the recount and the switch
+        synchronized (loadLock) {
+            List<Long> changed = List.copyOf(changedWhileLoading);
+            Map<Long, Long> exact = new HashMap<>();
+            memeLikeCountRepository.countByMemes(changed, exact::put);
+            for (Long memeId : changed) {
+                LongAdder counter = counterOf(memeId);
+                counter.add(exact.getOrDefault(memeId, 0L) - counter.sum());
+            }
+            ready = true;
+            changedWhileLoading.clear();
+        }
+        log.info("Meme like counts loaded: {} memes in {} ms", counts.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Applies a committed like (+1) or unlike (-1).
+     */
+    public void add(long memeId, long delta) {
+        if (!ready) {
+            synchronized (loadLock) {
+                if (!ready) {
+                    counterOf(memeId).add(delta);
+                    dirty.add(memeId);
+                    changedWhileLoading.add(memeId);
+                    return;
+                }
+            }
+        }
+        counterOf(memeId).add(delta);
+        dirty.add(memeId);
+        Set<Long> reconciling = changedWhileReconciling;
+        if (reconciling != null) {
+            reconciling.add(memeId);
+        }
+    }
+
+    /**
+     * Drops the counter of a deleted meme.
+     */
+    public void forget(long memeId) {
+        counts.remove(memeId);
+        dirty.remove(memeId);
+    }
+
+    public long get(long memeId) {
+        if (!ready) {
+            return memeLikeCountRepository.countByMeme(memeId);
+        }
+        LongAdder counter = counts.get(memeId);
+        return counter == null ? 0 : Math.max(0, counter.sum());
+    }
+
+    /**
+     * Counts of several memes; before the seed is in, one grouped query for all of them.
+     * @return A count for every given meme, zero included
+     */
+    public Map<Long, Long> getAll(Collection<Long> memeIds) {
+        Map<Long, Long> result = new HashMap<>();
+        boolean loaded = ready;
+        if (!loaded) {
+            memeLikeCountRepository.countByMemes(memeIds, result::put);
+        }
+        for (Long memeId : memeIds) {
+            result.computeIfAbsent(memeId, id -> {
+                LongAdder counter = loaded ? counts.get(id) : null;
+                return counter == null ? 0L : Math.max(0, counter.sum());
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Writes the counters changed since the last flush to {@code memes.like_count}. A failed
+     * flush leaves them marked for the next one.
+     * @return The number of rows changed
+     */
+    @Scheduled(fixedDelayString = "${mematch.likes.counts.flush-interval-ms:5000}")
+    public int flush() {
+        if (!ready || dirty.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Map<Long, Long> batch = new HashMap<>();
+        for (Long memeId : dirty) {
+            // Unmark before reading, so a like landing in between marks it again
+            dirty.remove(memeId);
+            LongAdder counter = counts.get(memeId);
+            if (counter != null) {
+                batch.put(memeId, Math.max(0, counter.sum()));
+            }
+        }
+        try {
+            int changed = memeLikeCountRepository.saveCounts(batch);
+            flushedCounter.increment(changed);
+            return changed;
+        } catch (RuntimeException e) {
+            dirty.addAll(batch.keySet());
+            log.warn("Flushing {} meme like counts failed: {}", batch.size(), e.getMessage());
+            return 0;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Recounts every meme's likes and corrects counters that drifted from them, e.g. after likes
+     * were removed by a user deletion cascade. Counters of memes no longer liked, deleted ones
+     * included, are dropped. Memes liked or unliked while the recount runs are left as they are
+     * and checked by the next reconcile, since the recount may or may not include that change.
+     * @return The number of counters corrected
+     */
+    @Scheduled(cron = "${mematch.likes.counts.reconcile-cron:0 15 5 * * *}")
+    public int reconcile() {
+        if (!ready) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedWhileReconciling = changed;
+        try {
+            Map<Long, Long> exact = new HashMap<>();
+            memeLikeCountRepository.countAll(exact::put);
+            List<Long> dropped = new ArrayList<>();
+            Map<Long, Long> zeroed = new HashMap<>();
+            for (Long memeId : counts.keySet()) {
+                if (!exact.containsKey(memeId) && !changed.contains(memeId)) {
+                    LongAdder counter = counts.remove(memeId);
+                    dirty.remove(memeId);
+                    dropped.add(memeId);
+                    if (counter != null && counter.sum() != 0) {
+                        zeroed.put(memeId, 0L);
+                    }
+                }
+            }
+            // Memes that still exist keep like_count in step; deleted ones are skipped
+            memeLikeCountRepository.saveCounts(zeroed);
+            int corrected = zeroed.size();
+            for (Map.Entry<Long, Long> entry : exact.entrySet()) {
+                Long memeId = entry.getKey();
+                if (changed.contains(memeId)) {
+                    continue;
+                }
+                // Adjust by the difference, so a like landing in between is kept
+                LongAdder counter = counterOf(memeId);
+                long drift = entry.getValue() - counter.sum();
+                if (drift != 0) {
+                    counter.add(drift);
+                    dirty.add(memeId);
+                    corrected++;
+                }
+            }
+            // A like that raced the drop went to the removed counter; count those memes again
+            List<Long> raced = dropped.stream().filter(changed::contains).toList();
+            Map<Long, Long> recount = new HashMap<>();
+            memeLikeCountRepository.countByMemes(raced, recount::put);
+            for (Long memeId : raced) {
+                LongAdder counter = counterOf(memeId);
+                counter.add(recount.getOrDefault(memeId, 0L) - counter.sum());
+                dirty.add(memeId);
+            }
+            correctedCounter.increment(corrected);
+            if (corrected > 0) {
+                log.warn("Meme like count reconcile fixed {} drifted counters ({} ms)",
+                        corrected, (System.nanoTime() - start) / 1_000_000);
+            }
+            return corrected;
+        } finally {
+            changedWhileReconciling = null;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private LongAdder counterOf(long memeId) {
+        return counts.computeIfAbsent(memeId, id -> new LongAdder());
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.feed.ProfileSnapshot;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.infrastructure.persistence.AfterCommit;
 import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
 import org.example.mematch.infrastructure.security.JwtUtil;
 import org.example.mematch.infrastructure.web.dto.AuthRequest;
@@ -18,13 +20,16 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final ProfileSnapshot profileSnapshot;
 
     public AuthService(UserRepository userRepository, 
                       PasswordEncoder passwordEncoder,
-                      JwtUtil jwtUtil) {
+                      JwtUtil jwtUtil,
+                      ProfileSnapshot profileSnapshot) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.profileSnapshot = profileSnapshot;
     }
 
     public AuthResponse register(AuthRequest request) {
@@ -49,6 +54,8 @@ public class AuthService {
         );
 
         user = userRepository.save(user);
+        User registered = user;
+        AfterCommit.run(() -> profileSnapshot.upsert(registered));
 
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getId(), user.getUsername());
@@ -1,68 +1,128 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.like.LikedMemeCache;
+import org.example.mematch.application.like.MemeLikeCounter;
 import org.example.mematch.domain.entities.Like;
-import org.example.mematch.domain.entities.Meme;
-import org.example.mematch.domain.entities.User;
 import org.example.mematch.domain.service.LikeService;
+import org.example.mematch.infrastructure.persistence.AfterCommit;
+import org.example.mematch.infrastructure.persistence.jdbc.UserLikeRepository;
 import org.example.mematch.infrastructure.persistence.jpa.LikeRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MemeRepository;
-import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
+import org.example.mematch.infrastructure.persistence.projection.MemeLikeSummary;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 @Service
 @Transactional
 public class LikeServiceImpl implements LikeService {
 
+    static final int MAX_BULK_MEMES = 100;
+
     private final LikeRepository likeRepository;
     private final MemeRepository memeRepository;
-    private final UserRepository userRepository;
+    private final MemeLikeCounter memeLikeCounter;
+    private final UserLikeRepository userLikeRepository;
+    private final LikedMemeCache likedMemeCache;
 
     public LikeServiceImpl(LikeRepository likeRepository,
                           MemeRepository memeRepository,
-                          UserRepository userRepository) {
+                          MemeLikeCounter memeLikeCounter,
+                          UserLikeRepository userLikeRepository,
+                          LikedMemeCache likedMemeCache) {
         this.likeRepository = likeRepository;
         this.memeRepository = memeRepository;
-        this.userRepository = userRepository;
+        this.memeLikeCounter = memeLikeCounter;
+        this.userLikeRepository = userLikeRepository;
+        this.likedMemeCache = likedMemeCache;
     }
 
     @Override
     public Like likeMeme(Like like) {
-        return likeRepository.save(like);
+        Like saved = likeRepository.save(like);
+        recordChange(like.getUser().getId(), like.getMeme().getId(), true);
+        return saved;
     }
 
+    /**
+     * Answered from the user's cached liked memes; the first check of a user loads them with one query.
+     */
     @Override
     public boolean hasUserLikedMeme(Long userId, Long memeId) {
-        return likeRepository.findAll().stream()
-                .anyMatch(l -> l.getUser().getId().equals(userId) && 
-                              l.getMeme().getId().equals(memeId));
+        return likedMemeCache.hasLiked(userId, memeId);
     }
 
-    public Like createLike(Long userId, Long memeId) {
-        if (hasUserLikedMeme(userId, memeId)) {
-            throw new IllegalArgumentException("User has already liked this meme");
+    /**
+     * Likes a meme with one insert that does nothing if the like already exists, so repeated
+     * requests are harmless.
+     * @return true if the like is new, false if the user had already liked the meme
+     * @throws IllegalArgumentException if the user or the meme does not exist
+     */
+    public boolean createLike(Long userId, Long memeId) {
+        boolean created;
+        try {
+            created = userLikeRepository.insertIfAbsent(userId, memeId);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("User or meme not found");
+        }
+        if (created) {
+            recordChange(userId, memeId, true);
         }
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        Meme meme = memeRepository.findById(memeId)
-                .orElseThrow(() -> new IllegalArgumentException("Meme not found"));
-        Like like = Like.create(user, meme);
-        return likeRepository.save(like);
+        return created;
     }
 
-    public void unlikeMeme(Long userId, Long memeId) {
-        Like like = likeRepository.findAll().stream()
-                .filter(l -> l.getUser().getId().equals(userId) && 
-                            l.getMeme().getId().equals(memeId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Like not found"));
-        likeRepository.delete(like);
+    /**
+     * Removes a like with one delete by (user, meme); unliking twice is harmless.
+     * @return true if a like was removed, false if there was none
+     */
+    public boolean unlikeMeme(Long userId, Long memeId) {
+        boolean removed = userLikeRepository.deleteIfPresent(userId, memeId);
+        if (removed) {
+            recordChange(userId, memeId, false);
+        }
+        return removed;
     }
 
+    /**
+     * Served from the in-memory counters, without a query.
+     */
     public long getLikeCount(Long memeId) {
-        return likeRepository.findAll().stream()
-                .filter(l -> l.getMeme().getId().equals(memeId))
-                .count();
+        return memeLikeCounter.get(memeId);
+    }
+
+    /**
+     * Like counts and "liked by me" flags for a page of memes (a meme grid), both from memory:
+     * the counts from the like counters (one grouped query until they are loaded) and the flags
+     * from the user's cached liked memes (one query on the user's first check).
+     * @param memeIds Duplicates and nulls are ignored; unknown memes get a count of zero
+     * @return One summary per distinct meme, in request order
+     */
+    @Transactional(readOnly = true)
+    public List<MemeLikeSummary> getLikeSummaries(Long userId, List<Long> memeIds) {
+        if (memeIds.size() > MAX_BULK_MEMES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_MEMES + " memes per request");
+        }
+        List<Long> ids = memeIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> counts = memeLikeCounter.getAll(ids);
+        Set<Long> liked = likedMemeCache.likedAmong(userId, ids);
+        return ids.stream()
+                .map(id -> new MemeLikeSummary(id, counts.get(id), liked.contains(id)))
+                .toList();
+    }
+
+    private void recordChange(Long userId, Long memeId, boolean liked) {
+        AfterCommit.run(() -> {
+            memeLikeCounter.add(memeId, liked ? 1 : -1);
+            likedMemeCache.update(userId, memeId, liked);
+        });
     }
 
     /**
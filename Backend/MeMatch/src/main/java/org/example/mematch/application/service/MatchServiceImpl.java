@@ -1,22 +1,51 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.event.MatchEvent;
+import org.example.mematch.application.event.MatchEventBus;
+import org.example.mematch.application.feed.SwipedUserIndex;
 import org.example.mematch.domain.entities.Match;
 import org.example.mematch.domain.entities.User;
 import org.example.mematch.domain.service.MatchService;
+import org.example.mematch.domain.valueobjects.CursorPage;
+import org.example.mematch.domain.valueobjects.PageCursor;
+import org.example.mematch.infrastructure.persistence.AfterCommit;
+import org.example.mematch.infrastructure.persistence.jdbc.MatchSummaryRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.SwipeRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.UserMatchCountRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MatchRepository;
+import org.example.mematch.infrastructure.persistence.projection.IncomingLike;
+import org.example.mematch.infrastructure.persistence.projection.MatchSummary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 @Service
 @Transactional
 public class MatchServiceImpl implements MatchService {
 
+    static final int MAX_BATCH_SWIPES = 500;
+    static final int MAX_MATCH_PAGE_SIZE = 100;
+
     private final MatchRepository matchRepository;
+    private final SwipedUserIndex swipedUserIndex;
+    private final SwipeRepository swipeRepository;
+    private final MatchSummaryRepository matchSummaryRepository;
+    private final MatchEventBus matchEventBus;
+    private final UserMatchCountRepository userMatchCountRepository;
 
-    public MatchServiceImpl(MatchRepository matchRepository) {
+    public MatchServiceImpl(MatchRepository matchRepository, SwipedUserIndex swipedUserIndex,
+                            SwipeRepository swipeRepository,
+                            MatchSummaryRepository matchSummaryRepository, MatchEventBus matchEventBus,
+                            UserMatchCountRepository userMatchCountRepository) {
         this.matchRepository = matchRepository;
+        this.swipedUserIndex = swipedUserIndex;
+        this.swipeRepository = swipeRepository;
+        this.matchSummaryRepository = matchSummaryRepository;
+        this.matchEventBus = matchEventBus;
+        this.userMatchCountRepository = userMatchCountRepository;
     }
 
     @Override
@@ -25,58 +54,64 @@ public class MatchServiceImpl implements MatchService {
             throw new IllegalStateException("Match already exists between these users");
         }
         Match match = Match.create(user1, user2); // use factory method
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        recordSwipeAfterCommit(saved);
+        return saved;
     }
 
     /**
      * Like a user (swipe right). Creates a one-way like or updates to a match if mutual.
+     * The swipe is one atomic upsert, so simultaneous opposing swipes always produce a single match.
+     * A new like or match is published on the MatchEventBus once the swipe has committed.
      * @param liker The user who is liking
      * @param liked The user being liked
      * @return The match record (matched=true if mutual, false if one-way)
      */
     public Match likeUser(User liker, User liked) {
-        // Check if any match already exists between these users (in any direction)
-        // Compare by ID to avoid issues with entity equality
         Long likerId = liker.getId();
         Long likedId = liked.getId();
-        
-        var existingMatch = matchRepository.findAll().stream()
-                .filter(m -> (m.getUser1().getId().equals(likerId) && m.getUser2().getId().equals(likedId)) ||
-                            (m.getUser2().getId().equals(likerId) && m.getUser1().getId().equals(likedId)))
-                .findFirst();
-
-        if (existingMatch.isPresent()) {
-            Match match = existingMatch.get();
-            // If already matched, return as is
-            if (match.isMatched()) {
-                return match;
-            }
-            // Check if this is a reverse like (mutual)
-            // The existing match could be:
-            // - user1=liker, user2=liked (same direction - user already liked, return existing)
-            // - user1=liked, user2=liker (reverse direction - mutual like! update to matched)
-            boolean isReverseLike = (match.getUser1().getId().equals(likedId) && match.getUser2().getId().equals(likerId));
-            
-            if (isReverseLike) {
-                // Mutual like - update to matched
-                match.markAsMatched();
-                Match saved = matchRepository.save(match);
-                matchRepository.flush(); // Explicitly flush to ensure update is persisted
-                System.out.println("✅ MATCH CREATED: User " + liker.getId() + " ↔ User " + liked.getId() + " (matched=true)");
-                return saved;
-            } else {
-                // Same direction - user already liked this person
-                System.out.println("⚠️ User " + liker.getId() + " already liked User " + liked.getId() + " (same direction)");
-            }
-            // Same direction like - user is trying to like again, return existing
-            return match;
+        if (likerId.equals(likedId)) {
+            throw new IllegalArgumentException("Cannot match a user with themselves");
         }
 
-        // No existing match - create new one-way like with matched=false
-        Match match = Match.create(liker, liked);
-        Match saved = matchRepository.save(match);
-        System.out.println("💙 ONE-WAY LIKE: User " + liker.getId() + " → User " + liked.getId() + " (matched=false)");
-        return saved;
+        SwipeRepository.SwipeResult result = swipeRepository.swipe(likerId, likedId);
+        if (result.outcome() != SwipeRepository.Outcome.UNCHANGED) {
+            long user1Id = result.user1Id();
+            long user2Id = result.user2Id();
+            boolean matched = result.matched();
+            AfterCommit.run(() -> recordSwipe(user1Id, user2Id, matched));
+        }
+        return matchRepository.findById(result.matchId())
+                .orElseThrow(() -> new IllegalStateException("Match " + result.matchId() + " not found after swipe"));
+    }
+
+    /**
+     * Like many users in one transaction (fast swiping). Already-swiped pairs are resolved with one
+     * query and the new likes are written as one JDBC batch.
+     * @param likerId The user who is liking
+     * @param likedIds The users being liked; duplicates, the liker and unknown users are ignored
+     * @return One result per liked user, MATCHED for each new mutual match
+     */
+    public List<SwipeRepository.SwipeResult> likeUsers(Long likerId, List<Long> likedIds) {
+        if (likedIds.size() > MAX_BATCH_SWIPES) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SWIPES + " swipes per batch");
+        }
+        long[] targets = likedIds.stream()
+                .filter(id -> id != null && !id.equals(likerId))
+                .mapToLong(Long::longValue)
+                .distinct()
+                .toArray();
+        if (targets.length == 0) {
+            return List.of();
+        }
+        List<SwipeRepository.SwipeResult> results = swipeRepository.swipeAll(likerId, targets);
+        List<SwipeRepository.SwipeResult> changed = results.stream()
+                .filter(r -> r.outcome() != SwipeRepository.Outcome.UNCHANGED)
+                .toList();
+        if (!changed.isEmpty()) {
+            AfterCommit.run(() -> changed.forEach(r -> recordSwipe(r.user1Id(), r.user2Id(), r.matched())));
+        }
+        return results;
     }
 
     /**
@@ -86,9 +121,11 @@ public class MatchServiceImpl implements MatchService {
      * @return true if liker has liked liked
      */
     public boolean hasUserLikedUser(User liker, User liked) {
-        return matchRepository.findAll().stream()
-                .anyMatch(m -> (m.getUser1().equals(liker) && m.getUser2().equals(liked)) ||
-                              (m.getUser2().equals(liker) && m.getUser1().equals(liked)));
+        // A row in either direction counts, as with the pair lookup
+        if (swipedUserIndex.isReady()) {
+            return swipedUserIndex.hasSwiped(liker.getId(), liked.getId()) || swipedUserIndex.hasSwiped(liked.getId(), liker.getId());
+        }
+        return matchRepository.findByPair(liker.getId(), liked.getId()).isPresent();
     }
 
     /**
@@ -98,22 +135,118 @@ public class MatchServiceImpl implements MatchService {
      * @return true if they have matched
      */
     public boolean areUsersMatched(User user1, User user2) {
-        return matchRepository.findAll().stream()
-                .anyMatch(m -> ((m.getUser1().equals(user1) && m.getUser2().equals(user2)) ||
-                               (m.getUser2().equals(user1) && m.getUser1().equals(user2))) &&
-                              m.isMatched());
+        if (swipedUserIndex.isReady()) {
+            return swipedUserIndex.areMatched(user1.getId(), user2.getId());
+        }
+        return matchRepository.findByPair(user1.getId(), user2.getId())
+                .map(Match::isMatched)
+                .orElse(false);
+    }
+
+    /**
+     * Delete a match or one-way like
+     * @param matchId The match to delete
+     */
+    public void deleteMatch(Long matchId) {
+        Match match = matchRepository.findById(matchId)
+                .orElseThrow(() -> new IllegalArgumentException("Match not found"));
+        long user1Id = match.getUser1().getId();
+        long user2Id = match.getUser2().getId();
+        boolean matched = match.isMatched();
+        matchRepository.delete(match);
+        AfterCommit.run(() -> swipedUserIndex.removeSwipe(user1Id, user2Id, matched));
     }
 
     @Override
     public boolean checkMatchExists(User user1, User user2) {
-        return matchRepository.existsByUser1AndUser2(user1, user2) ||
-                matchRepository.existsByUser1AndUser2(user2, user1);
+        return matchRepository.findByPair(user1.getId(), user2.getId()).isPresent();
     }
 
     @Override
     public List<Match> getMatchesForUser(User user) {
-        return matchRepository.findAll().stream()
-                .filter(m -> (m.getUser1().equals(user) || m.getUser2().equals(user)) && m.isMatched())
-                .toList();
+        if (swipedUserIndex.isReady() && !swipedUserIndex.hasMatches(user.getId())) {
+            return List.of();
+        }
+        return matchRepository.findMatchedByUser(user.getId());
+    }
+
+    /**
+     * One page of a user's matches, most recently matched first, as lightweight summaries of the
+     * other user. Served by a single query over the matched_at indexes; no entities are loaded.
+     * @param userId The user whose matches are listed
+     * @param size Page size, clamped to [1, MAX_MATCH_PAGE_SIZE]
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @return The page and the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MatchSummary> getMatchPage(Long userId, int size, String cursor) {
+        int pageSize = Math.max(1, Math.min(size, MAX_MATCH_PAGE_SIZE));
+        PageCursor after = cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor, 2);
+
+        // One extra row tells us whether there is a next page
+        List<MatchSummary> rows = after == null
+                ? matchSummaryRepository.findMatchPage(userId, null, 0, pageSize + 1)
+                : matchSummaryRepository.findMatchPage(userId, fromMicros(after.get(0)), after.get(1), pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<MatchSummary> page = rows.subList(0, pageSize);
+        MatchSummary last = page.get(pageSize - 1);
+        return new CursorPage<>(List.copyOf(page), PageCursor.of(toMicros(last.matchedAt()), last.matchId()).encode());
+    }
+
+    /**
+     * One page of the one-way likes a user received and has not answered, newest first, as
+     * lightweight summaries of who liked them. Each page is one index range scan, however many
+     * likes the user has.
+     * @param userId The liked user
+     * @param size Page size, clamped to [1, MAX_MATCH_PAGE_SIZE]
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @return The page and the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<IncomingLike> getIncomingLikePage(Long userId, int size, String cursor) {
+        int pageSize = Math.max(1, Math.min(size, MAX_MATCH_PAGE_SIZE));
+        Long before = cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor, 1).get(0);
+
+        // One extra row tells us whether there is a next page
+        List<IncomingLike> rows = matchSummaryRepository.findIncomingLikePage(userId, before, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<IncomingLike> page = List.copyOf(rows.subList(0, pageSize));
+        return new CursorPage<>(page, PageCursor.of(page.get(pageSize - 1).matchId()).encode());
+    }
+
+    /**
+     * How many matches a user has and how many one-way likes they gave and received, read from the
+     * counters that every write to matches keeps current. One primary key lookup.
+     */
+    @Transactional(readOnly = true)
+    public UserMatchCountRepository.Counts getMatchCounts(Long userId) {
+        return userMatchCountRepository.findByUser(userId);
+    }
+
+    // matched_at is a microsecond TIMESTAMP, so the cursor round-trips it exactly
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private void recordSwipeAfterCommit(Match match) {
+        long user1Id = match.getUser1().getId();
+        long user2Id = match.getUser2().getId();
+        boolean matched = match.isMatched();
+        AfterCommit.run(() -> recordSwipe(user1Id, user2Id, matched));
+    }
+
+    // Runs after commit: the row is durable, so indexes and listeners may see it
+    private void recordSwipe(long user1Id, long user2Id, boolean matched) {
+        swipedUserIndex.recordSwipe(user1Id, user2Id, matched);
+        matchEventBus.publish(MatchEvent.ofSwipe(user1Id, user2Id, matched));
     }
 }
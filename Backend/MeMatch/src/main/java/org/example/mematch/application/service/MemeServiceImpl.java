@@ -1,8 +1,10 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.like.MemeLikeCounter;
 import org.example.mematch.domain.entities.Meme;
 import org.example.mematch.domain.entities.User;
 import org.example.mematch.domain.service.MemeService;
+import org.example.mematch.infrastructure.persistence.AfterCommit;
 import org.example.mematch.infrastructure.persistence.jpa.MemeRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,9 +16,11 @@ import java.util.List;
 public class MemeServiceImpl implements MemeService {
 
     private final MemeRepository memeRepository;
+    private final MemeLikeCounter memeLikeCounter;
 
-    public MemeServiceImpl(MemeRepository memeRepository) {
+    public MemeServiceImpl(MemeRepository memeRepository, MemeLikeCounter memeLikeCounter) {
         this.memeRepository = memeRepository;
+        this.memeLikeCounter = memeLikeCounter;
     }
 
     @Override
@@ -34,7 +38,9 @@ public class MemeServiceImpl implements MemeService {
 
     @Override
     public void deleteMeme(Long memeId) {
-        memeRepository.findById(memeId)
-                .ifPresent(memeRepository::delete);
+        memeRepository.findById(memeId).ifPresent(meme -> {
+            memeRepository.delete(meme);
+            AfterCommit.run(() -> memeLikeCounter.forget(memeId));
+        });
     }
 }
@@ -1,39 +1,78 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.feed.FeedMetrics;
+import org.example.mematch.application.feed.FeedQuery;
+import org.example.mematch.application.feed.FeedQueueCache;
+import org.example.mematch.application.feed.ProfileSnapshot;
+import org.example.mematch.application.feed.FeedScanStats;
+import org.example.mematch.application.feed.RankedCandidates;
+import org.example.mematch.application.feed.SwipedUserIndex;
+import org.example.mematch.application.feed.TopKSelector;
+import org.example.mematch.application.like.MemeLikeCounter;
 import org.example.mematch.domain.entities.Meme;
-import org.example.mematch.domain.entities.Match;
 import org.example.mematch.domain.entities.User;
 import org.example.mematch.domain.service.UserService;
+import org.example.mematch.domain.valueobjects.CursorPage;
 import org.example.mematch.domain.valueobjects.HumourTag;
+import org.example.mematch.domain.valueobjects.PageCursor;
+import org.example.mematch.infrastructure.persistence.AfterCommit;
+import org.example.mematch.infrastructure.persistence.jdbc.FeedCandidateRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.UserSimilarityRepository;
 import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MemeRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MatchRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.LongPredicate;
 
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    static final int FEED_PAGE_SIZE = 50;
+    static final int MAX_FEED_PAGE_SIZE = 100;
+    static final int MAX_SIMILAR_USERS = 50;
+
     private final UserRepository userRepository;
     private final MemeRepository memeRepository;
     private final MatchRepository matchRepository;
+    private final ProfileSnapshot profileSnapshot;
+    private final SwipedUserIndex swipedUserIndex;
+    private final FeedQueueCache feedQueueCache;
+    private final FeedMetrics feedMetrics;
+    private final FeedCandidateRepository feedCandidateRepository;
+    private final UserSimilarityRepository userSimilarityRepository;
+    private final MemeLikeCounter memeLikeCounter;
 
-    public UserServiceImpl(UserRepository userRepository, MemeRepository memeRepository, MatchRepository matchRepository) {
+    public UserServiceImpl(UserRepository userRepository, MemeRepository memeRepository, MatchRepository matchRepository,
+                           ProfileSnapshot profileSnapshot, SwipedUserIndex swipedUserIndex, FeedQueueCache feedQueueCache,
+                           FeedMetrics feedMetrics, FeedCandidateRepository feedCandidateRepository,
+                           UserSimilarityRepository userSimilarityRepository, MemeLikeCounter memeLikeCounter) {
         this.userRepository = userRepository;
         this.memeRepository = memeRepository;
         this.matchRepository = matchRepository;
+        this.profileSnapshot = profileSnapshot;
+        this.swipedUserIndex = swipedUserIndex;
+        this.feedQueueCache = feedQueueCache;
+        this.feedMetrics = feedMetrics;
+        this.feedCandidateRepository = feedCandidateRepository;
+        this.userSimilarityRepository = userSimilarityRepository;
+        this.memeLikeCounter = memeLikeCounter;
     }
 
     @Override
     public User createUser(String email, String username, String passwordHash) {
         User user = User.create(email, username, passwordHash);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        AfterCommit.run(() -> profileSnapshot.upsert(saved));
+        return saved;
     }
 
     @Override
@@ -54,42 +93,213 @@ public class UserServiceImpl implements UserService {
         return userRepository.searchByUsername(query.trim());
     }
 
+    /**
+     * Next page of the feed, popped from the user's precomputed {@link FeedQueueCache} queue.
+     * Only the first request of a user (or the first after a preference change) ranks synchronously;
+     * later pages are refilled in the background by the FeedQueueRefresher.
+     */
     @Override
     public List<User> getUsersForFeed(Long userId) {
-        // Get current user - refresh from database to ensure we have latest preferences
+        long start = System.nanoTime();
         User currentUser = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
-        // Debug: Log current user preferences
-        System.out.println("Feed filter for user " + userId + ": genderPref=" + currentUser.getGenderPreference() + 
-                          ", ageMin=" + currentUser.getAgeMinPreference() + ", ageMax=" + currentUser.getAgeMaxPreference());
-        
-        // Get all users
-        List<User> allUsers = userRepository.findAll();
-        
-        // Get all matches where current user is involved and matched=true
-        List<Match> matchedMatches = matchRepository.findAll().stream()
-                .filter(m -> m.isMatched() && 
-                           (m.getUser1().getId().equals(userId) || m.getUser2().getId().equals(userId)))
-                .toList();
-        
-        // Collect IDs of users that are matched with current user (exclude from feed)
-        Set<Long> matchedUserIds = matchedMatches.stream()
-                .map(m -> {
-                    if (m.getUser1().getId().equals(userId)) {
-                        return m.getUser2().getId();
-                    } else {
-                        return m.getUser1().getId();
-                    }
-                })
-                .collect(Collectors.toSet());
-        
-        // Filter: exclude current user, matched users, and apply preferences
-        return allUsers.stream()
-                .filter(u -> !u.getId().equals(userId) && !matchedUserIds.contains(u.getId()))
+        feedMetrics.recordStage(FeedMetrics.Stage.LOAD_USER, start);
+
+        Map<Long, User> loaded = new HashMap<>();
+        long[] ids = feedQueueCache.poll(userId, FEED_PAGE_SIZE);
+        if (ids == null) {
+            int limit = feedQueueCache.capacity();
+            RankedCandidates ranked = profileSnapshot.isReady() ? null : precomputed(userId, limit);
+            if (ranked == null) {
+                ranked = rank(currentUser, null, limit, loaded);
+            }
+            ids = Arrays.copyOf(ranked.ids(), Math.min(ranked.count(), FEED_PAGE_SIZE));
+            feedQueueCache.prime(userId, ranked, ids.length, ranked.count() < limit);
+        }
+
+        // Drop candidates swiped on since they were queued
+        LongPredicate swiped = swipedBy(userId);
+        long[] fresh = Arrays.stream(ids).filter(id -> !swiped.test(id)).toArray();
+        feedMetrics.recordFilter(FeedMetrics.Filter.QUEUED_EXCLUSION, ids.length, fresh.length);
+        List<User> users = filterPage(currentUser, hydrateInOrder(fresh, fresh.length, loaded));
+        feedMetrics.recordResultSize(users.size());
+        return users;
+    }
+
+    /**
+     * One page of the feed ranked by humour compatibility (how many of the viewer's preferred
+     * humour tags the candidate has), ties broken by ascending user id so the order is stable.
+     * Only the final page is loaded as entities.
+     * @param userId The user the feed is built for
+     * @param size Page size, clamped to [1, MAX_FEED_PAGE_SIZE]
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @return The page and the cursor for the next one
+     */
+    @Override
+    public CursorPage<User> getFeedPage(Long userId, int size, String cursor) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        PageCursor after = cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor, 2);
+
+        long start = System.nanoTime();
+        User currentUser = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        feedMetrics.recordStage(FeedMetrics.Stage.LOAD_USER, start);
+
+        // One extra candidate tells us whether there is a next page
+        Map<Long, User> loaded = new HashMap<>();
+        RankedCandidates ranked = rank(currentUser, after, pageSize + 1, loaded);
+        boolean hasNext = ranked.count() > pageSize;
+        int pageCount = Math.min(ranked.count(), pageSize);
+
+        List<User> users = filterPage(currentUser, hydrateInOrder(ranked.ids(), pageCount, loaded));
+        feedMetrics.recordResultSize(users.size());
+        String nextCursor = hasNext ? ranked.cursorAt(pageCount - 1).encode() : null;
+        return new CursorPage<>(users, nextCursor);
+    }
+
+    /**
+     * Users who liked the same memes, most similar first, as precomputed by the CoLikeSimilarityJob.
+     * Users already swiped on are skipped; the viewer's gender/age preferences are not applied.
+     * @param limit Clamped to [1, MAX_SIMILAR_USERS]
+     */
+    @Override
+    public List<User> getSimilarUsers(Long userId, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_SIMILAR_USERS));
+        userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+        LongPredicate swiped = swipedBy(userId);
+        long[] ids = userSimilarityRepository.findByUser(userId, MAX_SIMILAR_USERS).stream()
+                .mapToLong(UserSimilarityRepository.Similarity::similarUserId)
+                .filter(id -> !swiped.test(id))
+                .limit(max)
+                .toArray();
+        return hydrateInOrder(ids, ids.length, new HashMap<>());
+    }
+
+    // Cold start before the snapshot is loaded: the nightly FeedPrecomputeJob ranking beats a SQL scan
+    private RankedCandidates precomputed(Long userId, int limit) {
+        List<long[]> rows = feedCandidateRepository.findByUser(userId, limit);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        long[] ids = new long[rows.size()];
+        int[] scores = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = rows.get(i)[0];
+            scores[i] = (int) rows.get(i)[1];
+        }
+        return new RankedCandidates(ids, scores, ids.length);
+    }
+
+    /**
+     * Ranks up to {@code limit} feed candidates after {@code after} without loading them as entities.
+     * Used by the feed queue refill.
+     */
+    public RankedCandidates rankFeedCandidates(Long userId, PageCursor after, int limit) {
+        User currentUser = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        return rank(currentUser, after, limit, new HashMap<>());
+    }
+
+    /**
+     * Candidates are scored as int bitmasks and selected with a bounded top-K heap over the
+     * {@link ProfileSnapshot}, nearest location first. Until the snapshot is loaded the SQL
+     * fallback ranks with the same score ({@link FeedQuery#score}), so cursors carry over between the two.
+     * @param loaded Receives the candidates a branch already loaded as entities, so they are not fetched twice
+     */
+    private RankedCandidates rank(User currentUser, PageCursor after, int limit, Map<Long, User> loaded) {
+        FeedQuery query = FeedQuery.of(currentUser, after);
+        long[] rankedIds = new long[limit];
+        int[] rankedScores = new int[limit];
+
+        if (profileSnapshot.isReady()) {
+            // Filter and rank over the in-memory columns
+            LongPredicate swiped = swipedBy(currentUser.getId());
+            long start = System.nanoTime();
+            TopKSelector top = new TopKSelector(limit);
+            FeedScanStats stats = new FeedScanStats();
+            profileSnapshot.selectTopK(query, swiped, top, stats);
+            RankedCandidates ranked = new RankedCandidates(rankedIds, rankedScores, top.drainInto(rankedIds, rankedScores));
+            feedMetrics.recordStage(FeedMetrics.Stage.RANK, start);
+            feedMetrics.recordScan(stats);
+            return ranked;
+        }
+        long start = System.nanoTime();
+        if (query.preferenceMask() == 0 && !query.hasLocation()) {
+            // Every candidate scores 0, so the ranking is plain id order: a keyset query is enough
+            Long afterId = after == null || after.get(0) > 0 ? null : after.get(1);
+            List<User> candidates = userRepository.findFeedCandidates(currentUser, afterId, limit);
+            for (int i = 0; i < candidates.size(); i++) {
+                rankedIds[i] = candidates.get(i).getId();
+                loaded.put(rankedIds[i], candidates.get(i));
+            }
+            feedMetrics.recordStage(FeedMetrics.Stage.RANK, start);
+            return new RankedCandidates(rankedIds, rankedScores, candidates.size());
+        }
+        // Gender/age preferences and the swiped-user exclusion still run in SQL; ranking happens here
+        TopKSelector top = new TopKSelector(limit);
+        userRepository.forEachFeedCandidate(currentUser, (id, tagMask, country, city) -> {
+            int score = query.score(tagMask, country, city);
+            if (query.isAfterCursor(score, id)) {
+                top.offer(id, score);
+            }
+        });
+        RankedCandidates ranked = new RankedCandidates(rankedIds, rankedScores, top.drainInto(rankedIds, rankedScores));
+        feedMetrics.recordStage(FeedMetrics.Stage.RANK, start);
+        return ranked;
+    }
+
+    // Users already liked or matched, O(1) per candidate from the bitmap index when it is loaded
+    private LongPredicate swipedBy(Long userId) {
+        long start = System.nanoTime();
+        LongPredicate swiped;
+        if (swipedUserIndex.isReady()) {
+            swiped = swipedUserIndex.swipedBy(userId);
+        } else {
+            long[] swipedIds = matchRepository.findSwipedUserIds(userId);
+            swiped = id -> Arrays.binarySearch(swipedIds, id) >= 0;
+        }
+        feedMetrics.recordStage(FeedMetrics.Stage.LOAD_SWIPES, start);
+        return swiped;
+    }
+
+    // Same predicates as the query; keeps the in-memory semantics (e.g. equalsIgnoreCase) for the page
+    private List<User> filterPage(User currentUser, List<User> candidates) {
+        long start = System.nanoTime();
+        List<User> byGender = candidates.stream()
                 .filter(u -> matchesGenderPreference(currentUser, u))
+                .toList();
+        List<User> byAge = byGender.stream()
                 .filter(u -> matchesAgePreference(currentUser, u))
                 .toList();
+        feedMetrics.recordStage(FeedMetrics.Stage.FILTER, start);
+        feedMetrics.recordFilter(FeedMetrics.Filter.PAGE_GENDER, candidates.size(), byGender.size());
+        feedMetrics.recordFilter(FeedMetrics.Filter.PAGE_AGE, byGender.size(), byAge.size());
+        return byAge;
+    }
+
+    private List<User> hydrateInOrder(long[] ids, int count, Map<Long, User> loaded) {
+        long start = System.nanoTime();
+        List<Long> missing = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (!loaded.containsKey(ids[i])) {
+                missing.add(ids[i]);
+            }
+        }
+        Map<Long, User> byId = new HashMap<>(loaded);
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                byId.put(user.getId(), user);
+            }
+        }
+        List<User> ordered = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = byId.get(ids[i]);
+            if (user != null) {
+                ordered.add(user);
+            }
+        }
+        feedMetrics.recordStage(FeedMetrics.Stage.HYDRATE, start);
+        return ordered;
     }
     
     private boolean matchesGenderPreference(User currentUser, User otherUser) {
@@ -123,14 +333,7 @@ public class UserServiceImpl implements UserService {
         Integer minAge = currentUser.getAgeMinPreference();
         Integer maxAge = currentUser.getAgeMaxPreference();
         
-        boolean matches = otherAge >= minAge && otherAge <= maxAge;
-        
-        // Debug logging
-        if (!matches) {
-            System.out.println("Age filter: User " + otherUser.getId() + " (age: " + otherAge + ") does not match preference range [" + minAge + "-" + maxAge + "]");
-        }
-        
-        return matches;
+        return otherAge >= minAge && otherAge <= maxAge;
     }
 
     @Override
@@ -147,7 +350,14 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         user.updateProfile(age, gender, city, country, humourTags);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        feedCandidateRepository.deleteByUser(id);
+        AfterCommit.run(() -> {
+            profileSnapshot.upsert(saved);
+            // The user's own location decides which of their queued candidates come first
+            feedQueueCache.invalidate(id);
+        });
+        return saved;
     }
     
     @Override
@@ -163,6 +373,12 @@ public class UserServiceImpl implements UserService {
         user.updatePreferences(genderPreference, ageMinPreference, ageMaxPreference, humourTagsPreference);
         User saved = userRepository.save(user);
         userRepository.flush(); // Explicitly flush to ensure preferences are persisted
+        feedCandidateRepository.deleteByUser(id);
+        AfterCommit.run(() -> {
+            profileSnapshot.upsert(saved);
+            // Queued candidates were ranked with the old filters
+            feedQueueCache.invalidate(id);
+        });
         
         // Verify after save
         User verified = userRepository.findById(id).orElse(null);
@@ -190,5 +406,6 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("User cannot delete someone else's meme");
         }
         memeRepository.delete(meme);
+        AfterCommit.run(() -> memeLikeCounter.forget(memeId));
     }
 }
@@ -0,0 +1,120 @@
+package org.example.mematch.application.swipe;
+
+import org.example.mematch.infrastructure.persistence.jdbc.UserMatchCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the per-user counters in {@code user_match_counts} from {@code matches} and reports how
+ * many had drifted. The counters are maintained by a trigger, so drift only comes from writes that
+ * bypassed it (restores, disabled triggers) and from rows left behind by deleted users; this job
+ * is the safety net, not the source of truth.
+ *
+ * The user id space is split into ranges of {@code range-size} ids that a fork-join pool recounts
+ * in parallel, one short transaction per range so swipes are only held up for that range.
+ */
+@Component
+public class MatchCountReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchCountReconciliationJob.class);
+
+    private final UserMatchCountRepository userMatchCountRepository;
+    private final int rangeSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public MatchCountReconciliationJob(UserMatchCountRepository userMatchCountRepository,
+                                       @Value("${mematch.match-counts.range-size:1000}") int rangeSize,
+                                       @Value("${mematch.match-counts.parallelism:0}") int parallelism) {
+        this.userMatchCountRepository = userMatchCountRepository;
+        this.rangeSize = rangeSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Scheduled(cron = "${mematch.match-counts.cron:0 0 4 * * *}")
+    public void runNightly() {
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            log.warn("Nightly match count reconciliation skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the job and waits for it to finish.
+     * @throws IllegalStateException if the job is already running
+     */
+    public Report run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Match count reconciliation is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            long maxUserId = userMatchCountRepository.maxUserId();
+            int ranges = (int) (Math.max(0, maxUserId) / rangeSize) + 1;
+            AtomicLong corrected = new AtomicLong();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RangeTask(0, ranges, ranges, corrected));
+            } finally {
+                pool.shutdown();
+            }
+            Report report = new Report(ranges, corrected.get(), (System.nanoTime() - start) / 1_000_000);
+            if (report.corrected() > 0) {
+                log.warn("Match count reconciliation fixed {} drifted counters in {} ranges ({} ms)",
+                        report.corrected(), ranges, report.elapsedMillis());
+            } else {
+                log.info("Match count reconciliation: {} ranges, no drift ({} ms)", ranges, report.elapsedMillis());
+            }
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Recounts range number {@code range}; the first and last ranges are open-ended so every id is covered.
+     */
+    void reconcileRange(int range, int ranges, AtomicLong corrected) {
+        long first = range == 0 ? Long.MIN_VALUE : (long) range * rangeSize;
+        long last = range == ranges - 1 ? Long.MAX_VALUE : (long) (range + 1) * rangeSize - 1;
+        corrected.addAndGet(userMatchCountRepository.reconcileRange(first, last));
+    }
+
+    public record Report(int ranges, long corrected, long elapsedMillis) {
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int ranges;
+        private final AtomicLong corrected;
+
+        RangeTask(int from, int to, int ranges, AtomicLong corrected) {
+            this.from = from;
+            this.to = to;
+            this.ranges = ranges;
+            this.corrected = corrected;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                reconcileRange(from, ranges, corrected);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, ranges, corrected), new RangeTask(mid, to, ranges, corrected));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.mematch.application.swipe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.mematch.application.feed.SwipedUserIndex;
+import org.example.mematch.infrastructure.persistence.jdbc.StaleLikeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Retention for one-way likes: removes likes nobody answered within {@code max-age-days}, so
+ * {@code matches} and its indexes stop growing with abandoned swipes. Removed likes are copied to
+ * {@code matches_archive} first when {@code archive} is on. Afterwards the liked user can show up
+ * in the liker's feed again.
+ *
+ * Works oldest first in keyset batches of {@code batch-size}, each its own short transaction,
+ * sleeping {@code pause-ms} between batches so locks are never held for long and swipes keep
+ * getting through. Likes being swiped on at that moment are skipped and picked up by a later run.
+ */
+@Component
+public class StaleLikeCleanupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleLikeCleanupJob.class);
+
+    private final StaleLikeRepository staleLikeRepository;
+    private final SwipedUserIndex swipedUserIndex;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final boolean archive;
+    private final Counter removedCounter;
+    private final Counter batchCounter;
+    private final Timer runTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StaleLikeCleanupJob(StaleLikeRepository staleLikeRepository, SwipedUserIndex swipedUserIndex,
+                               MeterRegistry meterRegistry,
+                               @Value("${mematch.likes.cleanup.max-age-days:90}") int maxAgeDays,
+                               @Value("${mematch.likes.cleanup.batch-size:500}") int batchSize,
+                               @Value("${mematch.likes.cleanup.pause-ms:100}") long pauseMillis,
+                               @Value("${mematch.likes.cleanup.archive:false}") boolean archive) {
+        this.staleLikeRepository = staleLikeRepository;
+        this.swipedUserIndex = swipedUserIndex;
+        this.maxAge = Duration.ofDays(maxAgeDays);
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.archive = archive;
+        this.removedCounter = Counter.builder("mematch.likes.cleanup.removed")
+                .description("One-way likes removed by retention")
+                .tag("archived", String.valueOf(archive))
+                .register(meterRegistry);
+        this.batchCounter = Counter.builder("mematch.likes.cleanup.batches").register(meterRegistry);
+        this.runTimer = Timer.builder("mematch.likes.cleanup.duration")
+                .description("Time spent per cleanup run, pauses included")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${mematch.likes.cleanup.cron:0 0 5 * * *}")
+    public void runNightly() {
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            log.warn("Nightly stale like cleanup skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Removes every one-way like older than the retention period and waits for it to finish.
+     * @throws IllegalStateException if the job is already running
+     */
+    public Report run() {
+        acquire();
+        return cleanUp();
+    }
+
+    /**
+     * Starts a cleanup on a background thread and returns at once; progress shows in the
+     * mematch.likes.cleanup.* meters and the log.
+     * @throws IllegalStateException if the job is already running
+     */
+    public void start() {
+        acquire();
+        Thread worker = new Thread(() -> {
+            try {
+                cleanUp();
+            } catch (RuntimeException e) {
+                log.error("Stale like cleanup failed", e);
+            }
+        }, "stale-like-cleanup");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void acquire() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Stale like cleanup is already running");
+        }
+    }
+
+    private Report cleanUp() {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+            LocalDateTime afterCreatedAt = null;
+            long afterId = 0;
+            long removed = 0;
+            int batches = 0;
+            while (true) {
+                StaleLikeRepository.Batch batch = staleLikeRepository.deleteBatch(cutoff, afterCreatedAt, afterId, batchSize, archive);
+                if (batch.lastCreatedAt() == null) {
+                    break;
+                }
+                batches++;
+                batchCounter.increment();
+                for (long[] like : batch.removed()) {
+                    swipedUserIndex.removeSwipe(like[1], like[2], false);
+                }
+                removed += batch.removed().size();
+                removedCounter.increment(batch.removed().size());
+                afterCreatedAt = batch.lastCreatedAt();
+                afterId = batch.lastId();
+                if (!pause()) {
+                    break;
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            Report report = new Report(removed, batches, elapsedNanos / 1_000_000);
+            log.info("Stale like cleanup: {} one-way likes older than {} {} in {} batches ({} ms)",
+                    removed, cutoff, archive ? "archived" : "deleted", batches, report.elapsedMillis());
+            return report;
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    // False if interrupted (shutdown): stop between batches, the rest waits for the next run
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public record Report(long removed, int batches, long elapsedMillis) {
+    }
+}
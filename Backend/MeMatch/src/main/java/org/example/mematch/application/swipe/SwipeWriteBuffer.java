@@ -0,0 +1,318 @@
+package org.example.mematch.application.swipe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.mematch.application.event.MatchEvent;
+import org.example.mematch.application.event.MatchEventBus;
+import org.example.mematch.application.feed.SwipedUserIndex;
+import org.example.mematch.infrastructure.persistence.jdbc.SwipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opt-in write-behind ingestion for one-way likes ({@code mematch.swipes.write-behind.enabled}).
+ * Accepted swipes go into a bounded queue that a dedicated writer thread flushes to {@code matches}
+ * as group commits: one transaction per batch of up to {@code batch-size} swipes, or whatever
+ * arrived within {@code flush-interval-ms} of the first one.
+ *
+ * Durability contract: an accepted swipe is durable once its batch commits, normally within one
+ * flush interval. Swipes still queued are flushed on graceful shutdown but lost if the process
+ * dies. A batch that fails is written again one swipe at a time, so one bad swipe cannot take the
+ * others with it; a swipe that keeps failing is dropped after {@link #MAX_FLUSH_ATTEMPTS} attempts. Swipes
+ * that may complete a match (the other user already swiped on the liker, or has a swipe on them
+ * still buffered) are never buffered; the latter first waits for that swipe to be written, so
+ * mutual matches are always written and reported synchronously. When the queue is full the caller
+ * writes synchronously instead, which slows swipers down to database speed rather than dropping.
+ */
+@Component
+public class SwipeWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(SwipeWriteBuffer.class);
+
+    static final int MAX_FLUSH_ATTEMPTS = 3;
+    static final long MAX_PENDING_WAIT_MILLIS = 5000;
+
+    private final SwipeRepository swipeRepository;
+    private final SwipedUserIndex swipedUserIndex;
+    private final MatchEventBus matchEventBus;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<long[]> queue;
+    // Buffered swipes not yet written, by unordered pair, so an opposite swipe can wait for them
+    private final Map<Pair, PendingSwipe> pending = new ConcurrentHashMap<>();
+    private final Counter acceptedCounter;
+    private final Counter mutualFallbackCounter;
+    private final Counter fullFallbackCounter;
+    private final Counter droppedCounter;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+    private volatile boolean running;
+    private Thread writer;
+
+    public SwipeWriteBuffer(SwipeRepository swipeRepository, SwipedUserIndex swipedUserIndex,
+                            MatchEventBus matchEventBus, MeterRegistry meterRegistry,
+                            @Value("${mematch.swipes.write-behind.enabled:false}") boolean enabled,
+                            @Value("${mematch.swipes.write-behind.queue-capacity:10000}") int queueCapacity,
+                            @Value("${mematch.swipes.write-behind.batch-size:500}") int batchSize,
+                            @Value("${mematch.swipes.write-behind.flush-interval-ms:50}") long flushIntervalMillis) {
+        this.swipeRepository = swipeRepository;
+        this.swipedUserIndex = swipedUserIndex;
+        this.matchEventBus = matchEventBus;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("mematch.swipes.buffer.depth", queue, BlockingQueue::size)
+                .description("Swipes accepted but not yet written")
+                .register(meterRegistry);
+        this.acceptedCounter = Counter.builder("mematch.swipes.buffer.accepted").register(meterRegistry);
+        this.mutualFallbackCounter = Counter.builder("mematch.swipes.buffer.synchronous")
+                .tag("reason", "possible_match").register(meterRegistry);
+        this.fullFallbackCounter = Counter.builder("mematch.swipes.buffer.synchronous")
+                .tag("reason", "queue_full").register(meterRegistry);
+        this.droppedCounter = Counter.builder("mematch.swipes.buffer.dropped")
+                .description("Accepted swipes lost after repeated flush failures")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("mematch.swipes.buffer.flush")
+                .description("Group commit latency")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("mematch.swipes.buffer.batch.size")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "swipe-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Swipe write-behind enabled: capacity {}, batch {}, flush every {} ms",
+                queue.remainingCapacity(), batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+    }
+
+    /**
+     * Flushes what is still queued before the datasource goes away.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<long[]> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            flush(rest.subList(from, Math.min(rest.size(), from + batchSize)));
+        }
+    }
+
+    /**
+     * Buffers a one-way like. If the liked user's swipe on the liker is still buffered, waits up
+     * to {@link #MAX_PENDING_WAIT_MILLIS} for it to be written so the synchronous write sees it.
+     * @return false if the caller must write the swipe synchronously: buffering is off, the swipe
+     *         may complete a match, or the queue is full
+     */
+    public boolean offer(long likerId, long likedId) {
+        if (!running || likerId == likedId) {
+            return false;
+        }
+        if (!swipedUserIndex.isReady() || swipedUserIndex.hasSwiped(likedId, likerId)) {
+            mutualFallbackCounter.increment();
+            return false;
+        }
+        Pair pair = Pair.of(likerId, likedId);
+        PendingSwipe own = new PendingSwipe(likerId);
+        PendingSwipe existing = pending.putIfAbsent(pair, own);
+        if (existing != null && existing.likerId != likerId) {
+            mutualFallbackCounter.increment();
+            awaitWritten(existing);
+            return false;
+        }
+        if (!queue.offer(new long[]{likerId, likedId})) {
+            if (existing == null) {
+                pending.remove(pair, own);
+                own.written.complete(null);
+            }
+            fullFallbackCounter.increment();
+            return false;
+        }
+        acceptedCounter.increment();
+        return true;
+    }
+
+    private void writeLoop() {
+        List<long[]> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // stop() drains the queue; flush what was already taken
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first swipe, then takes more until the batch is full or the flush interval
+     * since that first swipe has passed.
+     */
+    void collectBatch(List<long[]> batch) throws InterruptedException {
+        long[] first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            long[] next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void flush(List<long[]> batch) {
+        try {
+            write(batch);
+        } finally {
+            // Written or dropped, either way an opposite swipe no longer needs to wait for these
+            for (long[] swipe : batch) {
+                Pair pair = Pair.of(swipe[0], swipe[1]);
+                PendingSwipe entry = pending.get(pair);
+                if (entry != null && entry.likerId == swipe[0] && pending.remove(pair, entry)) {
+                    entry.written.complete(null);
+                }
+            }
+        }
+    }
+
+    private void write(List<long[]> batch) {
+        long start = System.nanoTime();
+        try {
+            SwipeRepository.Outcome[] outcomes = swipeRepository.upsertBatch(batch);
+            recordInIndex(batch, outcomes);
+        } catch (RuntimeException e) {
+            // Retrying the same batch would fail the same way if one swipe is at fault
+            log.warn("Swipe flush of {} swipes failed, writing them one by one: {}", batch.size(), e.getMessage());
+            writeEach(batch);
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(batch.size());
+    }
+
+    private void writeEach(List<long[]> batch) {
+        int dropped = 0;
+        for (long[] swipe : batch) {
+            SwipeRepository.Outcome outcome = writeOne(swipe[0], swipe[1]);
+            if (outcome == null) {
+                dropped++;
+            } else {
+                recordInIndex(List.<long[]>of(swipe), new SwipeRepository.Outcome[]{outcome});
+            }
+        }
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+            log.error("Dropped {} of {} buffered swipes after {} failed attempts each", dropped, batch.size(), MAX_FLUSH_ATTEMPTS);
+        }
+    }
+
+    // The first attempt was the batch, so a swipe gets MAX_FLUSH_ATTEMPTS - 1 more; null if all failed
+    private SwipeRepository.Outcome writeOne(long likerId, long likedId) {
+        for (int attempt = 2; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                return swipeRepository.swipe(likerId, likedId).outcome();
+            } catch (RuntimeException e) {
+                log.warn("Swipe {} -> {} failed (attempt {}/{}): {}",
+                        likerId, likedId, attempt, MAX_FLUSH_ATTEMPTS, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void awaitWritten(PendingSwipe swipe) {
+        try {
+            swipe.written.get(MAX_PENDING_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The flush will still report the match through the event bus
+            log.warn("Buffered swipe of user {} not written within {} ms", swipe.likerId, MAX_PENDING_WAIT_MILLIS);
+        }
+    }
+
+    private void recordInIndex(List<long[]> batch, SwipeRepository.Outcome[] outcomes) {
+        for (int i = 0; i < outcomes.length; i++) {
+            long likerId = batch.get(i)[0];
+            long likedId = batch.get(i)[1];
+            switch (outcomes[i]) {
+                case LIKED -> {
+                    swipedUserIndex.recordSwipe(likerId, likedId, false);
+                    matchEventBus.publish(MatchEvent.ofSwipe(likerId, likedId, false));
+                }
+                case MATCHED -> {
+                    // The liked user liked first, so they are user1 of the row
+                    swipedUserIndex.recordSwipe(likedId, likerId, true);
+                    matchEventBus.publish(MatchEvent.ofSwipe(likedId, likerId, true));
+                }
+                case UNCHANGED -> { }
+            }
+        }
+    }
+
+    int queuedCount() {
+        return queue.size();
+    }
+
+    private record Pair(long lowId, long highId) {
+        static Pair of(long userId, long otherUserId) {
+            return new Pair(Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+        }
+    }
+
+    private static final class PendingSwipe {
+        final long likerId;
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        PendingSwipe(long likerId) {
+            this.likerId = likerId;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package org.example.mematch.domain.entities;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "matches")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -23,6 +25,12 @@ public class Match {
     @Column(nullable = false)
     private boolean matched;
 
+    @Column(name = "matched_at")
+    private LocalDateTime matchedAt;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
     protected Match() {}
 
     public static Match create(User user1, User user2) {
@@ -33,13 +41,19 @@ public class Match {
         match.user1 = user1;
         match.user2 = user2;
         match.matched = false;
+        match.createdAt = LocalDateTime.now();
         return match;
     }
 
-    public void markAsMatched() { this.matched = true; }
+    public void markAsMatched() {
+        this.matched = true;
+        this.matchedAt = LocalDateTime.now();
+    }
 
     public Long getId() { return id; }
     public User getUser1() { return user1; }
     public User getUser2() { return user2; }
     public boolean isMatched() { return matched; }
+    public LocalDateTime getMatchedAt() { return matchedAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
 }
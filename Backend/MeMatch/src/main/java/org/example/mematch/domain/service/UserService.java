@@ -2,6 +2,7 @@ package org.example.mematch.domain.service;
 
 import org.example.mematch.domain.entities.Meme;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.CursorPage;
 import org.example.mematch.domain.valueobjects.HumourTag;
 
 import java.util.List;
@@ -17,6 +18,10 @@ public interface UserService {
 
     List<User> getUsersForFeed(Long userId);
 
+    CursorPage<User> getFeedPage(Long userId, int size, String cursor);
+
+    List<User> getSimilarUsers(Long userId, int limit);
+
     List<User> searchUsersByUsername(String query);
 
     User updateProfile(Long id, String description, String imageUrl);
@@ -0,0 +1,15 @@
+package org.example.mematch.domain.valueobjects;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * @param items The rows of this page
+ * @param nextCursor Cursor for the following page, or null when this is the last page
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
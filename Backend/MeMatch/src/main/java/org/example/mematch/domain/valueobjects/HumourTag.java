@@ -1,5 +1,7 @@
 package org.example.mematch.domain.valueobjects;
 
+import java.util.Collection;
+
 public enum HumourTag {
     DARK_HUMOUR,
     LIGHT_HUMOUR,
@@ -25,5 +27,37 @@ public enum HumourTag {
     WHOLESOME_MEMES,
     SARCASM,
     IRONY,
-    PUNS
+    PUNS;
+
+    // A set of tags fits in one int as long as there are at most 32 constants
+    static {
+        if (values().length > Integer.SIZE) {
+            throw new IllegalStateException("HumourTag masks support at most 32 tags");
+        }
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public static int maskOf(Collection<HumourTag> tags) {
+        int mask = 0;
+        if (tags != null) {
+            for (HumourTag tag : tags) {
+                if (tag != null) {
+                    mask |= tag.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Humour compatibility: number of tags the candidate has that the viewer is looking for.
+     * @param preferenceMask Mask of the viewer's humour tag preferences
+     * @param tagMask Mask of the candidate's humour tags
+     */
+    public static int compatibility(int preferenceMask, int tagMask) {
+        return Integer.bitCount(preferenceMask & tagMask);
+    }
 }
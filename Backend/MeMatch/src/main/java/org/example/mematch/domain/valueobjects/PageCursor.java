@@ -0,0 +1,73 @@
+package org.example.mematch.domain.valueobjects;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key of the last row of a page, encoded as URL-safe Base64.
+ * Clients pass it back unchanged to get the next page.
+ */
+public final class PageCursor {
+
+    private final long[] values;
+
+    private PageCursor(long[] values) {
+        this.values = values;
+    }
+
+    public static PageCursor of(long... values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("Cursor needs at least one value");
+        }
+        return new PageCursor(values.clone());
+    }
+
+    /**
+     * @param token Cursor previously returned by {@link #encode()}
+     * @param expectedLength Number of key parts the caller expects
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token, int expectedLength) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != expectedLength) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long[] values = new long[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Long.parseLong(parts[i]);
+            }
+            return new PageCursor(values);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) raw.append(':');
+            raw.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long get(int index) { return values[index]; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PageCursor)) return false;
+        PageCursor that = (PageCursor) o;
+        return Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() { return Arrays.hashCode(values); }
+
+    @Override
+    public String toString() { return encode(); }
+}
@@ -20,7 +20,15 @@ public class DatabaseInitializer {
         createCommentsTable();
         createLikesTable();
         createMatchesTable();
+        createMatchListIndexes();
         createMessagesTable();
+        createMatchPairIndex();
+        createFeedIndexes();
+        createFeedCandidatesTable();
+        createUserSimilaritiesTable();
+        createUserMatchCountsTable();
+        createStaleLikeCleanupSupport();
+        createMemeLikeCountSupport();
         System.out.println("✅ Database tables ensured (via DatabaseInitializer)");
     }
 
@@ -103,6 +111,62 @@ public class DatabaseInitializer {
         """);
     }
 
+    private void createMatchPairIndex() {
+        Boolean missing = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('unique_match_canonical_pair') IS NULL", Boolean.class);
+        if (Boolean.TRUE.equals(missing)) {
+            mergeOppositeMatchRows();
+        }
+        // Canonical (lower id, higher id) key: one row per pair whichever user liked first
+        jdbcTemplate.execute("""
+            CREATE UNIQUE INDEX IF NOT EXISTS unique_match_canonical_pair
+                ON matches (LEAST(user1_id, user2_id), GREATEST(user1_id, user2_id));
+        """);
+    }
+
+    private void mergeOppositeMatchRows() {
+        // unique_match_pair only covers one direction, so concurrent opposite swipes could leave two
+        // one-way rows for the same pair: merge them into the older, now matched, row
+        jdbcTemplate.execute("""
+            UPDATE matches m SET matched = TRUE, matched_at = COALESCE(m.matched_at, r.matched_at, CURRENT_TIMESTAMP)
+            FROM matches r
+            WHERE r.user1_id = m.user2_id AND r.user2_id = m.user1_id AND m.id < r.id;
+        """);
+        // Keep the conversation: move messages of the newer row before it is deleted
+        jdbcTemplate.execute("""
+            UPDATE messages msg SET match_id = r.id
+            FROM matches m, matches r
+            WHERE msg.match_id = m.id
+              AND r.user1_id = m.user2_id AND r.user2_id = m.user1_id AND m.id > r.id;
+        """);
+        jdbcTemplate.execute("""
+            DELETE FROM matches m
+            USING matches r
+            WHERE r.user1_id = m.user2_id AND r.user2_id = m.user1_id AND m.id > r.id;
+        """);
+    }
+
+    private void createMatchListIndexes() {
+        jdbcTemplate.execute("""
+            ALTER TABLE matches ADD COLUMN IF NOT EXISTS matched_at TIMESTAMP;
+        """);
+        // Matches made before the column existed have no recorded time; date them to the migration
+        jdbcTemplate.execute("""
+            UPDATE matches SET matched_at = CURRENT_TIMESTAMP WHERE matched AND matched_at IS NULL;
+        """);
+        // A user's matches newest first, from either side: (matched_at, id) keyset per side
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_matches_user1_matched_at ON matches (user1_id, matched_at, id) WHERE matched;
+        """);
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_matches_user2_matched_at ON matches (user2_id, matched_at, id) WHERE matched;
+        """);
+        // "Who liked me": a user's pending incoming likes by id, for keyset pages
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_matches_user2_matched_id ON matches (user2_id, matched, id);
+        """);
+    }
+
     private void createMessagesTable() {
         jdbcTemplate.execute("""
             CREATE TABLE IF NOT EXISTS messages (
@@ -120,4 +184,201 @@ public class DatabaseInitializer {
             );
         """);
     }
+
+    private void createFeedIndexes() {
+        // Profile columns are normally added by Hibernate; make sure they exist before indexing them
+        jdbcTemplate.execute("""
+            ALTER TABLE users
+                ADD COLUMN IF NOT EXISTS age INTEGER,
+                ADD COLUMN IF NOT EXISTS gender VARCHAR(255),
+                ADD COLUMN IF NOT EXISTS city VARCHAR(255),
+                ADD COLUMN IF NOT EXISTS country VARCHAR(255),
+                ADD COLUMN IF NOT EXISTS gender_preference VARCHAR(255),
+                ADD COLUMN IF NOT EXISTS age_min_preference INTEGER,
+                ADD COLUMN IF NOT EXISTS age_max_preference INTEGER;
+        """);
+        // Feed preference predicates: LOWER(gender) = ? AND age BETWEEN ? AND ?
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_users_gender_age ON users (LOWER(gender), age);
+        """);
+        // Anti-join on matches from the user2 side (unique_match_pair already covers user1_id, user2_id)
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_matches_user2_user1 ON matches (user2_id, user1_id);
+        """);
+    }
+
+    private void createFeedCandidatesTable() {
+        // Written by FeedPrecomputeJob; primary key order serves "candidates of a user by rank"
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS feed_candidates (
+                user_id BIGINT NOT NULL,
+                rank INTEGER NOT NULL,
+                candidate_id BIGINT NOT NULL,
+                score INTEGER NOT NULL,
+                computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (user_id, rank),
+                CONSTRAINT fk_feed_candidate_user FOREIGN KEY (user_id)
+                    REFERENCES users(id)
+                    ON DELETE CASCADE,
+                CONSTRAINT fk_feed_candidate_candidate FOREIGN KEY (candidate_id)
+                    REFERENCES users(id)
+                    ON DELETE CASCADE
+            );
+        """);
+        // Lets the ON DELETE CASCADE from a deleted candidate find its rows
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_feed_candidates_candidate ON feed_candidates (candidate_id);
+        """);
+    }
+
+    private void createUserSimilaritiesTable() {
+        // Written by CoLikeSimilarityJob; primary key order serves "similar users of a user by rank"
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS user_similarities (
+                user_id BIGINT NOT NULL,
+                rank INTEGER NOT NULL,
+                similar_user_id BIGINT NOT NULL,
+                co_likes INTEGER NOT NULL,
+                score DOUBLE PRECISION NOT NULL,
+                computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (user_id, rank),
+                CONSTRAINT fk_user_similarity_user FOREIGN KEY (user_id)
+                    REFERENCES users(id)
+                    ON DELETE CASCADE,
+                CONSTRAINT fk_user_similarity_similar FOREIGN KEY (similar_user_id)
+                    REFERENCES users(id)
+                    ON DELETE CASCADE
+            );
+        """);
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_user_similarities_similar ON user_similarities (similar_user_id);
+        """);
+    }
+
+    private void createUserMatchCountsTable() {
+        boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('user_match_counts') IS NOT NULL", Boolean.class);
+        // No foreign key: the trigger below still bumps a deleted user's row while the cascade
+        // removes their matches, and MatchCountReconciliationJob deletes the leftovers
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS user_match_counts (
+                user_id BIGINT PRIMARY KEY,
+                matches INTEGER NOT NULL DEFAULT 0,
+                outgoing_likes INTEGER NOT NULL DEFAULT 0,
+                incoming_likes INTEGER NOT NULL DEFAULT 0
+            );
+        """);
+        jdbcTemplate.execute("""
+            CREATE OR REPLACE FUNCTION bump_user_match_counts(p_user BIGINT, p_matches INT, p_outgoing INT, p_incoming INT)
+            RETURNS void AS $$
+            BEGIN
+                INSERT INTO user_match_counts AS c (user_id, matches, outgoing_likes, incoming_likes)
+                VALUES (p_user, p_matches, p_outgoing, p_incoming)
+                ON CONFLICT (user_id) DO UPDATE SET
+                    matches = c.matches + EXCLUDED.matches,
+                    outgoing_likes = c.outgoing_likes + EXCLUDED.outgoing_likes,
+                    incoming_likes = c.incoming_likes + EXCLUDED.incoming_likes;
+            END
+            $$ LANGUAGE plpgsql;
+        """);
+        // Counter rows are always locked lower user id first, as the reconciliation job does, so they cannot deadlock
+        jdbcTemplate.execute("""
+            CREATE OR REPLACE FUNCTION apply_match_row_counts(p_user1 BIGINT, p_user2 BIGINT, p_matched BOOLEAN, p_sign INT)
+            RETURNS void AS $$
+            DECLARE
+                m INT := p_sign * p_matched::int;
+                pending INT := p_sign * (NOT p_matched)::int;
+            BEGIN
+                IF p_user1 < p_user2 THEN
+                    PERFORM bump_user_match_counts(p_user1, m, pending, 0);
+                    PERFORM bump_user_match_counts(p_user2, m, 0, pending);
+                ELSE
+                    PERFORM bump_user_match_counts(p_user2, m, 0, pending);
+                    PERFORM bump_user_match_counts(p_user1, m, pending, 0);
+                END IF;
+            END
+            $$ LANGUAGE plpgsql;
+        """);
+        jdbcTemplate.execute("""
+            CREATE OR REPLACE FUNCTION maintain_user_match_counts() RETURNS trigger AS $$
+            BEGIN
+                IF TG_OP = 'UPDATE' AND OLD.user1_id = NEW.user1_id AND OLD.user2_id = NEW.user2_id
+                        AND OLD.matched = NEW.matched THEN
+                    RETURN NULL;
+                END IF;
+                IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                    PERFORM apply_match_row_counts(OLD.user1_id, OLD.user2_id, OLD.matched, -1);
+                END IF;
+                IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                    PERFORM apply_match_row_counts(NEW.user1_id, NEW.user2_id, NEW.matched, 1);
+                END IF;
+                RETURN NULL;
+            END
+            $$ LANGUAGE plpgsql;
+        """);
+        // Every writer of matches (swipes, batches, write-behind, JPA, deletes) updates the counters in its own transaction
+        jdbcTemplate.execute("""
+            DO $$
+            BEGIN
+                IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'trg_matches_user_counts') THEN
+                    CREATE TRIGGER trg_matches_user_counts
+                        AFTER INSERT OR DELETE OR UPDATE OF user1_id, user2_id, matched ON matches
+                        FOR EACH ROW EXECUTE FUNCTION maintain_user_match_counts();
+                END IF;
+            END
+            $$;
+        """);
+        if (!exists) {
+            jdbcTemplate.execute("""
+                INSERT INTO user_match_counts (user_id, matches, outgoing_likes, incoming_likes)
+                SELECT user_id, sum(matches), sum(outgoing), sum(incoming)
+                FROM (
+                    SELECT user1_id AS user_id, matched::int AS matches, (NOT matched)::int AS outgoing, 0 AS incoming
+                    FROM matches
+                    UNION ALL
+                    SELECT user2_id, matched::int, 0, (NOT matched)::int FROM matches
+                ) edges
+                GROUP BY user_id
+                ON CONFLICT (user_id) DO NOTHING;
+            """);
+        }
+    }
+
+    private void createStaleLikeCleanupSupport() {
+        // Existing rows get the migration time, so their retention period starts now
+        jdbcTemplate.execute("""
+            ALTER TABLE matches ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+        """);
+        // Hibernate may have created the column without a default; rows inserted then have no age
+        jdbcTemplate.execute("""
+            ALTER TABLE matches ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP;
+        """);
+        jdbcTemplate.execute("""
+            UPDATE matches SET created_at = COALESCE(matched_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+        """);
+        // StaleLikeCleanupJob walks pending likes oldest first and stops at the cutoff
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_matches_pending_created ON matches (created_at, id) WHERE matched = FALSE;
+        """);
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS matches_archive (
+                id BIGINT PRIMARY KEY,
+                user1_id BIGINT NOT NULL,
+                user2_id BIGINT NOT NULL,
+                created_at TIMESTAMP,
+                archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+            );
+        """);
+    }
+
+    private void createMemeLikeCountSupport() {
+        // Written by MemeLikeCounter's periodic flush; reads are served from memory
+        jdbcTemplate.execute("""
+            ALTER TABLE memes ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+        """);
+        // Per-meme like counts: the unique (user_id, meme_id) index cannot serve lookups by meme
+        jdbcTemplate.execute("""
+            CREATE INDEX IF NOT EXISTS idx_likes_meme ON likes (meme_id);
+        """);
+    }
 }
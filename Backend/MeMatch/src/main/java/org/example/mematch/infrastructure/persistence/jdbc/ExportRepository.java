@@ -0,0 +1,80 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.example.mematch.infrastructure.persistence.projection.MatchRow;
+import org.example.mematch.infrastructure.persistence.projection.MemeRow;
+import org.example.mematch.infrastructure.persistence.projection.UserRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Full-table reads that hand each row to a consumer as it arrives instead of building a list.
+ * Statements run with a fetch size inside a read-only transaction, which makes the PostgreSQL
+ * driver read through a server-side cursor {@link #FETCH_SIZE} rows at a time, so memory use does
+ * not grow with the table.
+ */
+@Repository
+public class ExportRepository {
+
+    static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamMatches(Consumer<MatchRow> sink) {
+        jdbcTemplate.query("SELECT id, user1_id, user2_id, matched, matched_at FROM matches ORDER BY id", rs -> {
+            Timestamp matchedAt = rs.getTimestamp(5);
+            sink.accept(new MatchRow(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getBoolean(4),
+                    matchedAt == null ? null : matchedAt.toLocalDateTime()));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public void streamMemes(Consumer<MemeRow> sink) {
+        jdbcTemplate.query("SELECT id, user_id, image_url, caption FROM memes ORDER BY id", rs -> {
+            sink.accept(new MemeRow(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4)));
+        });
+    }
+
+    /**
+     * Users with their humour tags. The tag tables are aggregated once by the database rather
+     * than per user.
+     */
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<UserRow> sink) {
+        jdbcTemplate.query("""
+                SELECT u.id, u.email, u.username, u.description, u.image_url, u.age, u.gender, u.city, u.country,
+                       t.tags, u.gender_preference, u.age_min_preference, u.age_max_preference, p.tags
+                FROM users u
+                LEFT JOIN (SELECT user_id, array_agg(tag::text) AS tags FROM user_humour_tags GROUP BY user_id) t
+                    ON t.user_id = u.id
+                LEFT JOIN (SELECT user_id, array_agg(tag::text) AS tags FROM user_humour_preferences GROUP BY user_id) p
+                    ON p.user_id = u.id
+                ORDER BY u.id
+                """, rs -> {
+            sink.accept(new UserRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getString(5), (Integer) rs.getObject(6), rs.getString(7), rs.getString(8),
+                    rs.getString(9), tags(rs, 10), rs.getString(11), (Integer) rs.getObject(12),
+                    (Integer) rs.getObject(13), tags(rs, 14)));
+        });
+    }
+
+    private static List<String> tags(ResultSet rs, int column) throws SQLException {
+        Array array = rs.getArray(column);
+        return array == null ? List.of() : Arrays.asList((String[]) array.getArray());
+    }
+}
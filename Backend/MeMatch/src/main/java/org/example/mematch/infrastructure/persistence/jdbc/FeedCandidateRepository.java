@@ -0,0 +1,64 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed feed candidates ({@code feed_candidates}): for each user, their best candidates by rank.
+ * Written in JDBC batches by the precompute job, so it bypasses JPA entirely.
+ */
+@Repository
+public class FeedCandidateRepository {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeedCandidateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Atomically replaces the candidates of every user in [firstUserId, lastUserId].
+     * Rows whose user or candidate was deleted since the job read its snapshot are skipped.
+     * @param rows One {user_id, rank, candidate_id, score} entry per candidate
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void replaceRange(long firstUserId, long lastUserId, List<long[]> rows) {
+        jdbcTemplate.update("DELETE FROM feed_candidates WHERE user_id BETWEEN ? AND ?", firstUserId, lastUserId);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO feed_candidates (user_id, rank, candidate_id, score) " +
+                        "SELECT u.id, ?, c.id, ? " +
+                        "FROM users u JOIN users c ON c.id = ? WHERE u.id = ?",
+                rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setInt(1, (int) row[1]);
+                    ps.setInt(2, (int) row[3]);
+                    ps.setLong(3, row[2]);
+                    ps.setLong(4, row[0]);
+                });
+    }
+
+    /**
+     * Precomputed candidates of a user, best first: one {candidate_id, score} entry each.
+     */
+    public List<long[]> findByUser(long userId, int limit) {
+        List<long[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT candidate_id, score FROM feed_candidates WHERE user_id = ? ORDER BY rank LIMIT ?",
+                rs -> {
+                    rows.add(new long[]{rs.getLong(1), rs.getInt(2)});
+                }, userId, limit);
+        return rows;
+    }
+
+    /**
+     * Drops a user's candidates, e.g. when their filters changed and the stored ranking no longer applies.
+     */
+    public void deleteByUser(long userId) {
+        jdbcTemplate.update("DELETE FROM feed_candidates WHERE user_id = ?", userId);
+    }
+}
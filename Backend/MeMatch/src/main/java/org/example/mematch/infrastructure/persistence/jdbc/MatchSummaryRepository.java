@@ -0,0 +1,84 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.example.mematch.infrastructure.persistence.projection.IncomingLike;
+import org.example.mematch.infrastructure.persistence.projection.MatchSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only match listings as projections ({@link MatchSummary}, {@link IncomingLike}), without
+ * loading Match or User entities.
+ */
+@Repository
+public class MatchSummaryRepository {
+
+    /**
+     * One page of a user's matches, newest first. Each side of the pair is a backward scan of its
+     * partial (userN_id, matched_at, id) index that stops after {@code limit} rows; the merged
+     * page joins only those rows to users.
+     */
+    static final String FIND_MATCH_PAGE = """
+            SELECT page.id, u.id, u.username, u.image_url, page.matched_at
+            FROM (
+                (SELECT m.id, m.user2_id AS other_id, m.matched_at FROM matches m
+                 WHERE m.user1_id = ? AND m.matched AND (m.matched_at, m.id) < (?, ?)
+                 ORDER BY m.matched_at DESC, m.id DESC LIMIT ?)
+                UNION ALL
+                (SELECT m.id, m.user1_id AS other_id, m.matched_at FROM matches m
+                 WHERE m.user2_id = ? AND m.matched AND (m.matched_at, m.id) < (?, ?)
+                 ORDER BY m.matched_at DESC, m.id DESC LIMIT ?)
+            ) page
+            JOIN users u ON u.id = page.other_id
+            ORDER BY page.matched_at DESC, page.id DESC
+            LIMIT ?
+            """;
+
+    /**
+     * One page of the likes a user received and has not answered, newest first: a backward range
+     * scan of idx_matches_user2_matched_id that stops after {@code limit} rows, each joined to its liker.
+     */
+    static final String FIND_INCOMING_LIKE_PAGE = """
+            SELECT m.id, u.id, u.username, u.image_url
+            FROM matches m
+            JOIN users u ON u.id = m.user1_id
+            WHERE m.user2_id = ? AND m.matched = FALSE AND m.id < ?
+            ORDER BY m.id DESC
+            LIMIT ?
+            """;
+
+    /** Cursor start: sorts after every real match. */
+    private static final Timestamp END_OF_TIME = Timestamp.valueOf("9999-12-31 00:00:00");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MatchSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param afterMatchedAt Matched time of the last row of the previous page, or null for the first page
+     * @param afterId Match id of that row
+     */
+    public List<MatchSummary> findMatchPage(long userId, LocalDateTime afterMatchedAt, long afterId, int limit) {
+        Timestamp after = afterMatchedAt == null ? END_OF_TIME : Timestamp.valueOf(afterMatchedAt);
+        long id = afterMatchedAt == null ? Long.MAX_VALUE : afterId;
+        return jdbcTemplate.query(FIND_MATCH_PAGE, (rs, i) -> new MatchSummary(
+                        rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                userId, after, id, limit, userId, after, id, limit, limit);
+    }
+
+    /**
+     * @param beforeMatchId Match id of the last row of the previous page, or null for the first page
+     */
+    public List<IncomingLike> findIncomingLikePage(long userId, Long beforeMatchId, int limit) {
+        long before = beforeMatchId == null ? Long.MAX_VALUE : beforeMatchId;
+        return jdbcTemplate.query(FIND_INCOMING_LIKE_PAGE, (rs, i) -> new IncomingLike(
+                        rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4)),
+                userId, before, limit);
+    }
+}
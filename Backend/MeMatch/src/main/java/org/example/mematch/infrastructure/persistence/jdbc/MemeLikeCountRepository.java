@@ -0,0 +1,78 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Like counts per meme for the MemeLikeCounter: aggregates over {@code likes} to seed it and the
+ * persisted {@code memes.like_count} column it flushes to.
+ */
+@Repository
+public class MemeLikeCountRepository {
+
+    public interface CountConsumer {
+        void accept(long memeId, long count);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemeLikeCountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams the like count of every meme that has likes, one row per meme.
+     */
+    public void countAll(CountConsumer consumer) {
+        jdbcTemplate.query("SELECT meme_id, count(*) FROM likes GROUP BY meme_id",
+                rs -> { consumer.accept(rs.getLong(1), rs.getLong(2)); });
+    }
+
+    /**
+     * Counts the likes of the given memes with one grouped query over idx_likes_meme;
+     * memes without likes are left out.
+     */
+    public void countByMemes(Collection<Long> memeIds, CountConsumer consumer) {
+        if (memeIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "SELECT meme_id, count(*) FROM likes WHERE meme_id = ANY (?) GROUP BY meme_id");
+            statement.setArray(1, connection.createArrayOf("bigint", memeIds.toArray()));
+            return statement;
+        }, rs -> { consumer.accept(rs.getLong(1), rs.getLong(2)); });
+    }
+
+    /**
+     * One index lookup on idx_likes_meme.
+     */
+    public long countByMeme(long memeId) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM likes WHERE meme_id = ?", Long.class, memeId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Writes counts to {@code memes.like_count} in one batch, skipping rows that already hold the
+     * value. Memes deleted in the meantime are ignored.
+     * @return The number of rows changed
+     */
+    public int saveCounts(Map<Long, Long> countByMeme) {
+        if (countByMeme.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(countByMeme.size());
+        countByMeme.forEach((memeId, count) -> rows.add(new Object[]{count, memeId, count}));
+        int changed = 0;
+        for (int rowCount : jdbcTemplate.batchUpdate(
+                "UPDATE memes SET like_count = ? WHERE id = ? AND like_count IS DISTINCT FROM ?", rows)) {
+            changed += Math.max(0, rowCount);
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes one-way likes that were never answered, a batch at a time, for the StaleLikeCleanupJob.
+ */
+@Repository
+public class StaleLikeRepository {
+
+    /**
+     * The next pending likes older than the cutoff, oldest first, from idx_matches_pending_created.
+     * Rows a swipe is updating right now are skipped rather than waited for.
+     */
+    static final String FIND_BATCH = """
+            SELECT id, user1_id, user2_id, created_at FROM matches
+            WHERE matched = FALSE AND created_at < ? AND (created_at, id) > (?, ?)
+            ORDER BY created_at, id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    /** Counter rows the delete trigger will touch, locked in the trigger's own order. */
+    static final String LOCK_COUNTERS = """
+            SELECT user_id FROM user_match_counts WHERE user_id = ANY (?) ORDER BY user_id FOR UPDATE
+            """;
+
+    static final String DELETE_BATCH = """
+            WITH deleted AS (
+                DELETE FROM matches WHERE id = ANY (?) AND matched = FALSE
+                RETURNING id, user1_id, user2_id, created_at
+            ), archived AS (
+                INSERT INTO matches_archive (id, user1_id, user2_id, created_at)
+                SELECT id, user1_id, user2_id, created_at FROM deleted WHERE ?
+                ON CONFLICT (id) DO NOTHING
+            )
+            SELECT id, user1_id, user2_id FROM deleted
+            """;
+
+    /** Keyset start: sorts before every real row. */
+    private static final Timestamp BEGINNING_OF_TIME = Timestamp.valueOf("0001-01-01 00:00:00");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StaleLikeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param removed {match id, liker id, liked id} of each removed like
+     * @param lastCreatedAt Keyset of the last row looked at, for the next batch; null when nothing was left
+     */
+    public record Batch(List<long[]> removed, LocalDateTime lastCreatedAt, long lastId) {
+    }
+
+    /**
+     * Deletes (and optionally archives) up to {@code limit} pending likes created before the cutoff
+     * and after the keyset, in one short transaction of its own. The counter rows of every user
+     * involved are locked in user id order before deleting, so the batch cannot deadlock with swipes.
+     * @param afterCreatedAt Keyset from the previous batch, or null to start from the oldest like
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Batch deleteBatch(LocalDateTime cutoff, LocalDateTime afterCreatedAt, long afterId, int limit, boolean archive) {
+        List<Long> ids = new ArrayList<>();
+        List<Long> users = new ArrayList<>();
+        LocalDateTime[] last = new LocalDateTime[1];
+        long[] lastId = new long[1];
+        jdbcTemplate.query(FIND_BATCH, rs -> {
+            ids.add(rs.getLong(1));
+            users.add(rs.getLong(2));
+            users.add(rs.getLong(3));
+            last[0] = rs.getTimestamp(4).toLocalDateTime();
+            lastId[0] = rs.getLong(1);
+        }, Timestamp.valueOf(cutoff), afterCreatedAt == null ? BEGINNING_OF_TIME : Timestamp.valueOf(afterCreatedAt),
+                afterId, limit);
+        if (ids.isEmpty()) {
+            return new Batch(List.of(), null, 0);
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_COUNTERS);
+            ps.setArray(1, connection.createArrayOf("bigint", users.toArray()));
+            return ps;
+        }, rs -> { });
+        List<long[]> removed = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DELETE_BATCH);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ps.setBoolean(2, archive);
+            return ps;
+        }, (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+        return new Batch(removed, last[0], lastId[0]);
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes swipes to {@code matches} as single atomic statements, so two users swiping on each other
+ * at the same moment always end up with exactly one matched row and no lock beyond that row.
+ */
+@Repository
+public class SwipeRepository {
+
+    /**
+     * Inserts the one-way like, or turns the other user's pending like into a match. The conflict
+     * target is the canonical (lower id, higher id) index, so a concurrent insert of the reverse
+     * like makes this statement wait for it and then take the update branch. Returns no row when
+     * nothing changed (same-direction repeat or already matched).
+     */
+    static final String UPSERT_SWIPE = """
+            INSERT INTO matches (user1_id, user2_id, matched, created_at) VALUES (?, ?, FALSE, CURRENT_TIMESTAMP)
+            ON CONFLICT ((LEAST(user1_id, user2_id)), (GREATEST(user1_id, user2_id)))
+            DO UPDATE SET matched = TRUE, matched_at = CURRENT_TIMESTAMP
+                WHERE matches.matched = FALSE AND matches.user1_id = EXCLUDED.user2_id
+            RETURNING id, user1_id, user2_id, matched
+            """;
+
+    /**
+     * Batchable form of {@link #UPSERT_SWIPE}: no RETURNING, and a swipe whose liker or liked user
+     * no longer exists is skipped instead of failing the whole batch on the foreign key.
+     * Parameters in the same order as UPSERT_SWIPE: liker id, liked id.
+     */
+    static final String UPSERT_SWIPE_IF_USER_EXISTS = """
+            INSERT INTO matches (user1_id, user2_id, matched, created_at)
+            SELECT liker.id, liked.id, FALSE, CURRENT_TIMESTAMP
+            FROM users liked JOIN users liker ON liker.id = ?
+            WHERE liked.id = ?
+            ON CONFLICT ((LEAST(user1_id, user2_id)), (GREATEST(user1_id, user2_id)))
+            DO UPDATE SET matched = TRUE, matched_at = CURRENT_TIMESTAMP
+                WHERE matches.matched = FALSE AND matches.user1_id = EXCLUDED.user2_id
+            """;
+
+    static final String FIND_PAIRS = """
+            SELECT id, user1_id, user2_id, matched FROM matches
+            WHERE (user1_id = ? AND user2_id = ANY (?)) OR (user2_id = ? AND user1_id = ANY (?))
+            """;
+
+    /** Swipes of a batch (liker[i] → liked[i]) that turned the other user's pending like into a match. */
+    static final String FIND_COMPLETED_MATCHES = """
+            SELECT s.liker, s.liked FROM unnest(?, ?) AS s(liker, liked)
+            JOIN matches m ON m.user1_id = s.liked AND m.user2_id = s.liker
+            WHERE m.matched
+            """;
+
+    static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SwipeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public enum Outcome {
+        /** A new one-way like was stored. */
+        LIKED,
+        /** The other user's pending like became a match. */
+        MATCHED,
+        /** The pair already had this like or a match. */
+        UNCHANGED
+    }
+
+    /**
+     * The pair's row after a swipe; user1 is whoever liked first.
+     */
+    public record SwipeResult(long matchId, long user1Id, long user2Id, boolean matched, Outcome outcome) {
+    }
+
+    public SwipeResult swipe(long likerId, long likedId) {
+        List<SwipeResult> changed = jdbcTemplate.query(UPSERT_SWIPE, (rs, i) -> {
+            boolean matched = rs.getBoolean(4);
+            return new SwipeResult(rs.getLong(1), rs.getLong(2), rs.getLong(3), matched,
+                    matched ? Outcome.MATCHED : Outcome.LIKED);
+        }, likerId, likedId);
+        if (!changed.isEmpty()) {
+            return changed.get(0);
+        }
+        // The conflicting row is committed and locked by now, so this read sees it
+        return jdbcTemplate.queryForObject(
+                "SELECT id, user1_id, user2_id, matched FROM matches " +
+                        "WHERE LEAST(user1_id, user2_id) = ? AND GREATEST(user1_id, user2_id) = ?",
+                (rs, i) -> new SwipeResult(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getBoolean(4),
+                        Outcome.UNCHANGED),
+                Math.min(likerId, likedId), Math.max(likerId, likedId));
+    }
+
+    /**
+     * Swipes right on many users at once, in three round trips whatever the batch size: one query
+     * resolves the existing pairs, one JDBC batch upserts the pairs that can still change, and one
+     * query reads back their final state. The upsert keeps each pair race-free as in {@link #swipe}.
+     * @param likedIds Distinct user ids, not containing the liker
+     * @return One result per liked user that exists, in no particular order
+     */
+    public List<SwipeResult> swipeAll(long likerId, long[] likedIds) {
+        Map<Long, SwipeResult> existing = findPairs(likerId, likedIds);
+        List<SwipeResult> results = new ArrayList<>(likedIds.length);
+        List<Long> toUpsert = new ArrayList<>();
+        for (long likedId : likedIds) {
+            SwipeResult row = existing.get(likedId);
+            if (row != null && (row.matched() || row.user1Id() == likerId)) {
+                results.add(new SwipeResult(row.matchId(), row.user1Id(), row.user2Id(), row.matched(), Outcome.UNCHANGED));
+            } else {
+                toUpsert.add(likedId);
+            }
+        }
+        if (toUpsert.isEmpty()) {
+            return results;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SWIPE_IF_USER_EXISTS, toUpsert, BATCH_SIZE, (ps, likedId) -> {
+            ps.setLong(1, likerId);
+            ps.setLong(2, likedId);
+        });
+        Map<Long, SwipeResult> after = findPairs(likerId, toUpsert.stream().mapToLong(Long::longValue).toArray());
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                long likedId = toUpsert.get(i++);
+                SwipeResult row = after.get(likedId);
+                if (row == null) {
+                    continue; // liked user does not exist
+                }
+                Outcome outcome = count == 0 ? Outcome.UNCHANGED : row.matched() ? Outcome.MATCHED : Outcome.LIKED;
+                results.add(new SwipeResult(row.matchId(), row.user1Id(), row.user2Id(), row.matched(), outcome));
+            }
+        }
+        return results;
+    }
+
+    // Rows between the liker and any of the users, by the other user's id
+    private Map<Long, SwipeResult> findPairs(long likerId, long[] otherIds) {
+        Map<Long, SwipeResult> byOtherId = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_PAIRS);
+            Array ids = connection.createArrayOf("bigint", Arrays.stream(otherIds).boxed().toArray());
+            ps.setLong(1, likerId);
+            ps.setArray(2, ids);
+            ps.setLong(3, likerId);
+            ps.setArray(4, ids);
+            return ps;
+        }, rs -> {
+            SwipeResult row = new SwipeResult(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getBoolean(4), Outcome.UNCHANGED);
+            byOtherId.put(row.user1Id() == likerId ? row.user2Id() : row.user1Id(), row);
+        });
+        return byOtherId;
+    }
+
+    /**
+     * Group commit for the write-behind buffer: upserts swipes from many likers as one JDBC batch
+     * in one transaction. Swipes may repeat or oppose each other within the batch; each statement
+     * sees the effect of the ones before it.
+     * @param swipes {liker_id, liked_id} pairs
+     * @return The outcome of each swipe, same order; UNCHANGED when either user no longer exists
+     */
+    @Transactional
+    public Outcome[] upsertBatch(List<long[]> swipes) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SWIPE_IF_USER_EXISTS, swipes, BATCH_SIZE, (ps, swipe) -> {
+            ps.setLong(1, swipe[0]);
+            ps.setLong(2, swipe[1]);
+        });
+        Set<List<Long>> completedMatches = new HashSet<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_COMPLETED_MATCHES);
+            ps.setArray(1, connection.createArrayOf("bigint", swipes.stream().map(s -> s[0]).toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", swipes.stream().map(s -> s[1]).toArray()));
+            return ps;
+        }, rs -> {
+            completedMatches.add(List.of(rs.getLong(1), rs.getLong(2)));
+        });
+
+        Outcome[] outcomes = new Outcome[swipes.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                long[] swipe = swipes.get(i);
+                if (count == 0) {
+                    outcomes[i] = Outcome.UNCHANGED;
+                } else {
+                    // A changed row the liker is user2 of can only have been a pending like becoming a match
+                    outcomes[i] = completedMatches.contains(List.of(swipe[0], swipe[1])) ? Outcome.MATCHED : Outcome.LIKED;
+                }
+                i++;
+            }
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Single-statement reads and writes of one user's likes, served by the unique (user_id, meme_id) index.
+ */
+@Repository
+public class UserLikeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserLikeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Every meme the user has liked, from an index-only scan of unique_user_meme_like.
+     */
+    public void findLikedMemeIds(long userId, LongConsumer consumer) {
+        jdbcTemplate.query("SELECT meme_id FROM likes WHERE user_id = ?", rs -> { consumer.accept(rs.getLong(1)); }, userId);
+    }
+
+    /**
+     * Inserts the like unless it exists; concurrent duplicates are absorbed by unique_user_meme_like.
+     * @return true if a row was inserted
+     */
+    public boolean insertIfAbsent(long userId, long memeId) {
+        return jdbcTemplate.update("""
+                INSERT INTO likes (user_id, meme_id) VALUES (?, ?)
+                ON CONFLICT (user_id, meme_id) DO NOTHING
+                """, userId, memeId) == 1;
+    }
+
+    /**
+     * @return true if a row was deleted
+     */
+    public boolean deleteIfPresent(long userId, long memeId) {
+        return jdbcTemplate.update("DELETE FROM likes WHERE user_id = ? AND meme_id = ?", userId, memeId) == 1;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Per-user match and pending-like counters ({@code user_match_counts}). A trigger on
+ * {@code matches} keeps them current in the transaction of every write; this repository reads
+ * them and rebuilds them for the reconciliation job.
+ */
+@Repository
+public class UserMatchCountRepository {
+
+    /** Counts of one id range, from the pair indexes on either side of matches. */
+    static final String RECONCILE_RANGE = """
+            WITH actual AS (
+                SELECT user_id, sum(matches) AS matches, sum(outgoing) AS outgoing_likes, sum(incoming) AS incoming_likes
+                FROM (
+                    SELECT user1_id AS user_id, matched::int AS matches, (NOT matched)::int AS outgoing, 0 AS incoming
+                    FROM matches WHERE user1_id BETWEEN ? AND ?
+                    UNION ALL
+                    SELECT user2_id, matched::int, 0, (NOT matched)::int
+                    FROM matches WHERE user2_id BETWEEN ? AND ?
+                ) edges
+                GROUP BY user_id
+            )
+            UPDATE user_match_counts c
+            SET matches = a.matches, outgoing_likes = a.outgoing_likes, incoming_likes = a.incoming_likes
+            FROM (
+                SELECT c2.user_id, COALESCE(e.matches, 0) AS matches, COALESCE(e.outgoing_likes, 0) AS outgoing_likes,
+                       COALESCE(e.incoming_likes, 0) AS incoming_likes
+                FROM user_match_counts c2 LEFT JOIN actual e ON e.user_id = c2.user_id
+                WHERE c2.user_id BETWEEN ? AND ?
+            ) a
+            WHERE c.user_id = a.user_id
+              AND (c.matches, c.outgoing_likes, c.incoming_likes)
+                  IS DISTINCT FROM (a.matches, a.outgoing_likes, a.incoming_likes)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserMatchCountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param matches Mutual matches
+     * @param outgoingLikes One-way likes the user gave that are still waiting for a like back
+     * @param incomingLikes One-way likes the user received and has not answered
+     */
+    public record Counts(int matches, int outgoingLikes, int incomingLikes) {
+        public static final Counts NONE = new Counts(0, 0, 0);
+    }
+
+    /**
+     * One primary key lookup; users without a counter row have no matches rows.
+     */
+    public Counts findByUser(long userId) {
+        List<Counts> rows = jdbcTemplate.query(
+                "SELECT matches, outgoing_likes, incoming_likes FROM user_match_counts WHERE user_id = ?",
+                (rs, i) -> new Counts(rs.getInt(1), rs.getInt(2), rs.getInt(3)), userId);
+        return rows.isEmpty() ? Counts.NONE : rows.get(0);
+    }
+
+    /**
+     * Highest id of any user or counter row; reconciliation ranges only need to reach this far.
+     */
+    public long maxUserId() {
+        Long max = jdbcTemplate.queryForObject(
+                "SELECT GREATEST((SELECT max(id) FROM users), (SELECT max(user_id) FROM user_match_counts))", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * Recounts the users in [firstUserId, lastUserId] from matches and fixes counters that drifted.
+     * The range's counter rows are locked before counting, in user id order like the trigger, so a
+     * swipe either commits before the count sees it or waits and increments the corrected value.
+     * @return The number of counters that were wrong
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int reconcileRange(long firstUserId, long lastUserId) {
+        int removed = jdbcTemplate.update("""
+                DELETE FROM user_match_counts c
+                WHERE c.user_id BETWEEN ? AND ? AND NOT EXISTS (SELECT 1 FROM users u WHERE u.id = c.user_id)
+                """, firstUserId, lastUserId);
+        jdbcTemplate.update("""
+                INSERT INTO user_match_counts (user_id) SELECT id FROM users WHERE id BETWEEN ? AND ?
+                ON CONFLICT (user_id) DO NOTHING
+                """, firstUserId, lastUserId);
+        jdbcTemplate.query("SELECT user_id FROM user_match_counts WHERE user_id BETWEEN ? AND ? ORDER BY user_id FOR UPDATE",
+                rs -> { }, firstUserId, lastUserId);
+        int corrected = jdbcTemplate.update(RECONCILE_RANGE,
+                firstUserId, lastUserId, firstUserId, lastUserId, firstUserId, lastUserId);
+        return removed + corrected;
+    }
+}
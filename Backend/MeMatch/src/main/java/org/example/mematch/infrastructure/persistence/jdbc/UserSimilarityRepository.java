@@ -0,0 +1,64 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Most similar users per user by co-liked memes ({@code user_similarities}).
+ * Written in JDBC batches by the co-like similarity job, so it bypasses JPA entirely.
+ */
+@Repository
+public class UserSimilarityRepository {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserSimilarityRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One stored similarity: how many memes both users liked and the cosine similarity of their likes.
+     */
+    public record Similarity(long userId, int rank, long similarUserId, int coLikes, double score) {
+    }
+
+    /**
+     * Atomically replaces the similar users of every user in [firstUserId, lastUserId].
+     * Rows whose user or similar user was deleted since the likes were loaded are skipped.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void replaceRange(long firstUserId, long lastUserId, List<Similarity> rows) {
+        jdbcTemplate.update("DELETE FROM user_similarities WHERE user_id BETWEEN ? AND ?", firstUserId, lastUserId);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_similarities (user_id, rank, similar_user_id, co_likes, score) " +
+                        "SELECT u.id, ?, s.id, ?, ? " +
+                        "FROM users u JOIN users s ON s.id = ? WHERE u.id = ?",
+                rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setInt(1, row.rank());
+                    ps.setInt(2, row.coLikes());
+                    ps.setDouble(3, row.score());
+                    ps.setLong(4, row.similarUserId());
+                    ps.setLong(5, row.userId());
+                });
+    }
+
+    /**
+     * Stored similar users of a user, most similar first.
+     */
+    public List<Similarity> findByUser(long userId, int limit) {
+        List<Similarity> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT rank, similar_user_id, co_likes, score FROM user_similarities " +
+                        "WHERE user_id = ? ORDER BY rank LIMIT ?",
+                rs -> {
+                    rows.add(new Similarity(userId, rs.getInt(1), rs.getLong(2), rs.getInt(3), rs.getDouble(4)));
+                }, userId, limit);
+        return rows;
+    }
+}
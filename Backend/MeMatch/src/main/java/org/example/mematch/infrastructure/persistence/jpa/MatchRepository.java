@@ -3,9 +3,12 @@ package org.example.mematch.infrastructure.persistence.jpa;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.example.mematch.domain.entities.Match;
-import org.example.mematch.domain.entities.User;
 import org.springframework.stereotype.Repository;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public class MatchRepository extends EntityRepositoryJPA<Match, Long> {
 
@@ -21,14 +24,46 @@ public class MatchRepository extends EntityRepositoryJPA<Match, Long> {
         em.flush();
     }
 
-    public boolean existsByUser1AndUser2(User u1, User u2) {
-        return !em.createQuery(
+    /**
+     * The row between two users, whichever of them liked first. Looks the pair up by its canonical
+     * (lower id, higher id) key, which the unique_match_canonical_pair index covers.
+     */
+    public Optional<Match> findByPair(Long userIdA, Long userIdB) {
+        return em.createQuery(
+                        "SELECT m FROM Match m " +
+                                "WHERE least(m.user1.id, m.user2.id) = :low " +
+                                "AND greatest(m.user1.id, m.user2.id) = :high", Match.class)
+                .setParameter("low", Math.min(userIdA, userIdB))
+                .setParameter("high", Math.max(userIdA, userIdB))
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Matched rows a user is part of, from either side; served by unique_match_pair and idx_matches_user2_user1.
+     */
+    public List<Match> findMatchedByUser(Long userId) {
+        return em.createQuery(
                         "SELECT m FROM Match m " +
-                                "WHERE (m.user1 = :u1 AND m.user2 = :u2) " +
-                                "   OR (m.user1 = :u2 AND m.user2 = :u1)", Match.class)
-                .setParameter("u1", u1)
-                .setParameter("u2", u2)
-                .getResultList()
-                .isEmpty();
+                                "WHERE (m.user1.id = :userId OR m.user2.id = :userId) AND m.matched = true " +
+                                "ORDER BY m.id", Match.class)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    /**
+     * Ids of the users a user has already swiped on, sorted ascending: everyone they liked
+     * (one-way or matched) and everyone they are matched with.
+     */
+    public long[] findSwipedUserIds(Long userId) {
+        List<Long> ids = em.createQuery(
+                        "SELECT CASE WHEN m.user1.id = :userId THEN m.user2.id ELSE m.user1.id END " +
+                                "FROM Match m WHERE m.user1.id = :userId " +
+                                "OR (m.user2.id = :userId AND m.matched = true)", Long.class)
+                .setParameter("userId", userId)
+                .getResultList();
+        long[] sorted = ids.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
     }
 }
@@ -2,11 +2,15 @@ package org.example.mematch.infrastructure.persistence.jpa;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.HumourTag;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class UserRepository extends EntityRepositoryJPA<User, Long> {
@@ -48,4 +52,111 @@ public class UserRepository extends EntityRepositoryJPA<User, Long> {
                 .setMaxResults(10) // Limit to 10 results
                 .getResultList();
     }
+
+    /**
+     * Feed candidates for a viewer, filtered in the database: gender/age preferences
+     * and an anti-join on matches so already swiped users never leave the database.
+     * @param viewer The user the feed is built for
+     * @param afterId Keyset cursor: only users with a greater id are returned (null for the first page)
+     * @param limit Maximum number of users to return
+     * @return Up to {@code limit} candidates ordered by id
+     */
+    public List<User> findFeedCandidates(User viewer, Long afterId, int limit) {
+        String jpql = "SELECT u FROM User u WHERE " + feedPredicates(viewer)
+                + (afterId != null ? " AND u.id > :afterId" : "")
+                + " ORDER BY u.id";
+        TypedQuery<User> query = em.createQuery(jpql, User.class);
+        bindFeedParameters(query, viewer);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Streams every feed candidate of a viewer as (id, humour tag mask, country, city) without materializing
+     * User entities. Uses the same predicates as {@link #findFeedCandidates}.
+     */
+    public void forEachFeedCandidate(User viewer, FeedCandidateConsumer consumer) {
+        String jpql = "SELECT u.id, t, u.country, u.city FROM User u LEFT JOIN u.humourTags t WHERE " + feedPredicates(viewer)
+                + " ORDER BY u.id";
+        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class)
+                .setHint("org.hibernate.fetchSize", 1000);
+        bindFeedParameters(query, viewer);
+
+        // One row per (user, tag); rows of a user are adjacent because of the ORDER BY
+        try (Stream<Object[]> rows = query.getResultStream()) {
+            long currentId = 0;
+            int currentMask = 0;
+            String currentCountry = null;
+            String currentCity = null;
+            boolean hasCurrent = false;
+            for (var it = rows.iterator(); it.hasNext(); ) {
+                Object[] row = it.next();
+                long id = (Long) row[0];
+                if (hasCurrent && id != currentId) {
+                    consumer.accept(currentId, currentMask, currentCountry, currentCity);
+                    currentMask = 0;
+                }
+                currentId = id;
+                currentCountry = (String) row[2];
+                currentCity = (String) row[3];
+                hasCurrent = true;
+                if (row[1] != null) {
+                    currentMask |= ((HumourTag) row[1]).bit();
+                }
+            }
+            if (hasCurrent) {
+                consumer.accept(currentId, currentMask, currentCountry, currentCity);
+            }
+        }
+    }
+
+    public List<User> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("SELECT u FROM User u WHERE u.id IN :ids", User.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    private static String feedPredicates(User viewer) {
+        StringBuilder where = new StringBuilder("u.id <> :viewerId");
+        if (filtersGender(viewer)) {
+            where.append(" AND LOWER(u.gender) = LOWER(:genderPreference)");
+        }
+        if (filtersAge(viewer)) {
+            where.append(" AND u.age BETWEEN :ageMin AND :ageMax");
+        }
+        // Two NOT EXISTS branches instead of one OR so each side can use its own index:
+        // users the viewer already liked (one-way or matched) and users who matched with the viewer
+        where.append(" AND NOT EXISTS (SELECT 1 FROM Match m WHERE m.user1.id = :viewerId AND m.user2 = u)");
+        where.append(" AND NOT EXISTS (SELECT 1 FROM Match m WHERE m.matched = true AND m.user2.id = :viewerId AND m.user1 = u)");
+        return where.toString();
+    }
+
+    private static void bindFeedParameters(TypedQuery<?> query, User viewer) {
+        query.setParameter("viewerId", viewer.getId());
+        if (filtersGender(viewer)) {
+            query.setParameter("genderPreference", viewer.getGenderPreference());
+        }
+        if (filtersAge(viewer)) {
+            query.setParameter("ageMin", viewer.getAgeMinPreference());
+            query.setParameter("ageMax", viewer.getAgeMaxPreference());
+        }
+    }
+
+    private static boolean filtersGender(User viewer) {
+        return viewer.getGenderPreference() != null && !viewer.getGenderPreference().isEmpty();
+    }
+
+    private static boolean filtersAge(User viewer) {
+        return viewer.getAgeMinPreference() != null && viewer.getAgeMaxPreference() != null;
+    }
+
+    @FunctionalInterface
+    public interface FeedCandidateConsumer {
+        void accept(long userId, int humourTagMask, String country, String city);
+    }
 }
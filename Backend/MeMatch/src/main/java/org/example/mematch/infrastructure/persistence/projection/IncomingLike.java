@@ -0,0 +1,9 @@
+package org.example.mematch.infrastructure.persistence.projection;
+
+/**
+ * A one-way like someone received: the pending matches row and who sent it.
+ * @param matchId The matches row
+ * @param userId The user who liked
+ */
+public record IncomingLike(long matchId, long userId, String username, String imageUrl) {
+}
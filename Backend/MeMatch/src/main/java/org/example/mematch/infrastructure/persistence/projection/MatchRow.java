@@ -0,0 +1,10 @@
+package org.example.mematch.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A matches row with the users as ids, for exports.
+ * @param matchedAt Null for one-way likes
+ */
+public record MatchRow(long id, long user1Id, long user2Id, boolean matched, LocalDateTime matchedAt) {
+}
@@ -0,0 +1,12 @@
+package org.example.mematch.infrastructure.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A match as seen from one of its users: just enough of the other user to render a match list.
+ * @param matchId The matches row
+ * @param userId The other user
+ * @param matchedAt When the second like made it a match
+ */
+public record MatchSummary(long matchId, long userId, String username, String imageUrl, LocalDateTime matchedAt) {
+}
@@ -0,0 +1,9 @@
+package org.example.mematch.infrastructure.persistence.projection;
+
+/**
+ * Like state of one meme as seen by one user.
+ * @param likeCount Likes the meme has in total
+ * @param likedByUser Whether the viewing user is one of them
+ */
+public record MemeLikeSummary(long memeId, long likeCount, boolean likedByUser) {
+}
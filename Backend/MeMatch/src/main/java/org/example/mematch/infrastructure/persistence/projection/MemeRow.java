@@ -0,0 +1,7 @@
+package org.example.mematch.infrastructure.persistence.projection;
+
+/**
+ * A memes row with the poster as an id, for exports.
+ */
+public record MemeRow(long id, long userId, String imageUrl, String caption) {
+}
@@ -0,0 +1,12 @@
+package org.example.mematch.infrastructure.persistence.projection;
+
+import java.util.List;
+
+/**
+ * A user's public profile and preferences, field for field as the User entity serializes, for exports.
+ */
+public record UserRow(long id, String email, String username, String description, String imageUrl,
+                      Integer age, String gender, String city, String country, List<String> humourTags,
+                      String genderPreference, Integer ageMinPreference, Integer ageMaxPreference,
+                      List<String> humourTagsPreference) {
+}
@@ -6,12 +6,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.mematch.application.service.LikeServiceImpl;
-import org.example.mematch.domain.entities.Like;
+import org.example.mematch.infrastructure.persistence.projection.MemeLikeSummary;
 import org.example.mematch.infrastructure.web.exception.GlobalExceptionHandler;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/likes")
 @Tag(name = "Likes", description = "Like management API endpoints")
@@ -24,38 +26,36 @@ public class LikeController {
     }
 
     @PostMapping("/meme/{memeId}/user/{userId}")
-    @Operation(summary = "Like a meme", description = "Add a like to a meme by a user")
+    @Operation(summary = "Like a meme", description = "Add a like to a meme by a user. Liking a meme again changes nothing.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Meme successfully liked"),
-            @ApiResponse(responseCode = "400", description = "User has already liked this meme"),
+            @ApiResponse(responseCode = "200", description = "User had already liked this meme; changed is false"),
             @ApiResponse(responseCode = "404", description = "User or meme not found")
     })
-    public ResponseEntity<Like> likeMeme(
+    public ResponseEntity<LikeChangeResponse> likeMeme(
             @Parameter(description = "Meme ID", required = true) @PathVariable Long memeId,
             @Parameter(description = "User ID", required = true) @PathVariable Long userId) {
         try {
-            Like like = likeService.createLike(userId, memeId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(like);
+            boolean created = likeService.createLike(userId, memeId);
+            LikeChangeResponse response = new LikeChangeResponse();
+            response.liked = true;
+            response.changed = created;
+            return ResponseEntity.status(created ? HttpStatus.CREATED : HttpStatus.OK).body(response);
         } catch (IllegalArgumentException e) {
             throw new GlobalExceptionHandler.ResourceNotFoundException(e.getMessage());
         }
     }
 
     @DeleteMapping("/meme/{memeId}/user/{userId}")
-    @Operation(summary = "Unlike a meme", description = "Remove a like from a meme")
-    @ApiResponses(value = {
-            @ApiResponse(responseCode = "204", description = "Meme successfully unliked"),
-            @ApiResponse(responseCode = "404", description = "Like not found")
-    })
-    public ResponseEntity<Void> unlikeMeme(
+    @Operation(summary = "Unlike a meme", description = "Remove a like from a meme. Unliking a meme that is not liked changes nothing.")
+    @ApiResponse(responseCode = "200", description = "Meme is not liked anymore; changed tells whether a like was removed")
+    public ResponseEntity<LikeChangeResponse> unlikeMeme(
             @Parameter(description = "Meme ID", required = true) @PathVariable Long memeId,
             @Parameter(description = "User ID", required = true) @PathVariable Long userId) {
-        try {
-            likeService.unlikeMeme(userId, memeId);
-            return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            throw new GlobalExceptionHandler.ResourceNotFoundException(e.getMessage());
-        }
+        LikeChangeResponse response = new LikeChangeResponse();
+        response.liked = false;
+        response.changed = likeService.unlikeMeme(userId, memeId);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/meme/{memeId}/user/{userId}")
@@ -81,6 +81,21 @@ public class LikeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/user/{userId}/memes")
+    @Operation(summary = "Get like counts and status for many memes",
+               description = "Like count and whether the user liked it, for each of up to 100 memes (one meme grid) in one request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved like counts and status, in request order"),
+            @ApiResponse(responseCode = "400", description = "More than 100 memes in one request")
+    })
+    public ResponseEntity<LikeSummariesResponse> getLikeSummaries(
+            @Parameter(description = "User ID whose likes are checked", required = true) @PathVariable Long userId,
+            @Parameter(description = "Meme IDs, comma separated", required = true) @RequestParam List<Long> memeIds) {
+        LikeSummariesResponse response = new LikeSummariesResponse();
+        response.memes = likeService.getLikeSummaries(userId, memeIds);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{likerUserId}/liked-user/{memeOwnerUserId}")
     @Operation(summary = "Check if user liked another user's memes", 
                description = "Check if a user has liked any memes from another user")
@@ -94,6 +109,11 @@ public class LikeController {
         return ResponseEntity.ok(response);
     }
 
+    public static class LikeChangeResponse {
+        public boolean liked;
+        public boolean changed;
+    }
+
     public static class LikeStatusResponse {
         public boolean hasLiked;
     }
@@ -105,5 +125,9 @@ public class LikeController {
     public static class UserLikeStatusResponse {
         public boolean hasLiked;
     }
+
+    public static class LikeSummariesResponse {
+        public List<MemeLikeSummary> memes;
+    }
 }
 
@@ -1,19 +1,34 @@
 package org.example.mematch.infrastructure.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.mematch.application.event.MatchEventBus;
 import org.example.mematch.application.service.MatchServiceImpl;
+import org.example.mematch.application.swipe.MatchCountReconciliationJob;
+import org.example.mematch.application.swipe.StaleLikeCleanupJob;
+import org.example.mematch.application.swipe.SwipeWriteBuffer;
 import org.example.mematch.domain.entities.Match;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.CursorPage;
+import org.example.mematch.infrastructure.persistence.jdbc.ExportRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.SwipeRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.UserMatchCountRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MatchRepository;
 import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
+import org.example.mematch.infrastructure.persistence.projection.IncomingLike;
+import org.example.mematch.infrastructure.persistence.projection.MatchRow;
+import org.example.mematch.infrastructure.persistence.projection.MatchSummary;
+import org.example.mematch.infrastructure.web.NdjsonResponses;
 import org.example.mematch.infrastructure.web.exception.GlobalExceptionHandler;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,13 +40,31 @@ public class MatchController {
     private final MatchServiceImpl matchService;
     private final UserRepository userRepository;
     private final MatchRepository matchRepository;
+    private final SwipeWriteBuffer swipeWriteBuffer;
+    private final MatchEventBus matchEventBus;
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final MatchCountReconciliationJob matchCountReconciliationJob;
+    private final StaleLikeCleanupJob staleLikeCleanupJob;
 
     public MatchController(MatchServiceImpl matchService, 
                           UserRepository userRepository,
-                          MatchRepository matchRepository) {
+                          MatchRepository matchRepository,
+                          SwipeWriteBuffer swipeWriteBuffer,
+                          MatchEventBus matchEventBus,
+                          ExportRepository exportRepository,
+                          ObjectMapper objectMapper,
+                          MatchCountReconciliationJob matchCountReconciliationJob,
+                          StaleLikeCleanupJob staleLikeCleanupJob) {
         this.matchService = matchService;
         this.userRepository = userRepository;
         this.matchRepository = matchRepository;
+        this.swipeWriteBuffer = swipeWriteBuffer;
+        this.matchEventBus = matchEventBus;
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.matchCountReconciliationJob = matchCountReconciliationJob;
+        this.staleLikeCleanupJob = staleLikeCleanupJob;
     }
 
     @GetMapping
@@ -42,6 +75,13 @@ public class MatchController {
         return ResponseEntity.ok(matches);
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all matches", description = "Stream every match and one-way like as newline-delimited JSON, one object per line with the users as ids, ordered by id. Memory use does not depend on the number of matches.")
+    @ApiResponse(responseCode = "200", description = "Matches streamed")
+    public ResponseEntity<StreamingResponseBody> exportMatches() {
+        return NdjsonResponses.<MatchRow>stream(objectMapper, exportRepository::streamMatches);
+    }
+
     @GetMapping("/{matchId}")
     @Operation(summary = "Get match by ID", description = "Retrieve a specific match by its ID")
     @ApiResponses(value = {
@@ -71,10 +111,11 @@ public class MatchController {
     }
 
     @PostMapping("/like/{likerUserId}/{likedUserId}")
-    @Operation(summary = "Like a user", description = "Like a user (swipe right). Creates a match if mutual.")
+    @Operation(summary = "Like a user", description = "Like a user (swipe right). Creates a match if mutual. With write-behind enabled, a like that cannot complete a match is queued and written within the flush interval.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User successfully liked"),
             @ApiResponse(responseCode = "201", description = "Match created (mutual like)"),
+            @ApiResponse(responseCode = "202", description = "One-way like accepted into the write-behind buffer"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     public ResponseEntity<LikeUserResponse> likeUser(
@@ -84,7 +125,12 @@ public class MatchController {
                 .orElseThrow(() -> new GlobalExceptionHandler.ResourceNotFoundException("User with id " + likerUserId + " not found"));
         User liked = userRepository.findById(likedUserId)
                 .orElseThrow(() -> new GlobalExceptionHandler.ResourceNotFoundException("User with id " + likedUserId + " not found"));
-        
+
+        if (swipeWriteBuffer.offer(likerUserId, likedUserId)) {
+            LikeUserResponse queued = new LikeUserResponse();
+            queued.queued = true;
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(queued);
+        }
         Match match = matchService.likeUser(liker, liked);
         LikeUserResponse response = new LikeUserResponse();
         response.match = match;
@@ -93,6 +139,34 @@ public class MatchController {
         return ResponseEntity.status(match.isMatched() ? HttpStatus.CREATED : HttpStatus.OK).body(response);
     }
 
+    @PostMapping("/like/{likerUserId}/batch")
+    @Operation(summary = "Like many users", description = "Like several users (swipes right) in one request and one transaction. Returns the new mutual matches.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users successfully liked"),
+            @ApiResponse(responseCode = "400", description = "More than 500 users in one batch"),
+            @ApiResponse(responseCode = "404", description = "Liker not found")
+    })
+    public ResponseEntity<BatchLikeResponse> likeUsers(
+            @Parameter(description = "User ID who is liking", required = true) @PathVariable Long likerUserId,
+            @RequestBody BatchLikeRequest r) {
+        userRepository.findById(likerUserId)
+                .orElseThrow(() -> new GlobalExceptionHandler.ResourceNotFoundException("User with id " + likerUserId + " not found"));
+
+        List<SwipeRepository.SwipeResult> results = matchService.likeUsers(likerUserId, r.likedUserIds == null ? List.of() : r.likedUserIds);
+        BatchLikeResponse response = new BatchLikeResponse();
+        response.processed = results.size();
+        response.newMatches = results.stream()
+                .filter(result -> result.outcome() == SwipeRepository.Outcome.MATCHED)
+                .map(result -> {
+                    NewMatch match = new NewMatch();
+                    match.matchId = result.matchId();
+                    match.userId = result.user1Id() == likerUserId ? result.user2Id() : result.user1Id();
+                    return match;
+                })
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}/liked-by/{otherUserId}")
     @Operation(summary = "Check if user has liked another user", 
                description = "Check if a user has liked another user")
@@ -125,6 +199,93 @@ public class MatchController {
         return ResponseEntity.ok(matches);
     }
 
+    @GetMapping("/user/{userId}/incoming-likes")
+    @Operation(summary = "Get who liked a user", description = "Retrieve one page of the users who liked a user and are still waiting for a like back, most recent first, as the like's match id and the liker's id, username and image. Total is the number of such likes. Pass the returned nextCursor to get the following page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of incoming likes"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<IncomingLikePageResponse> getIncomingLikes(
+            @Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new GlobalExceptionHandler.ResourceNotFoundException("User with id " + userId + " not found"));
+        CursorPage<IncomingLike> page = matchService.getIncomingLikePage(userId, size, cursor);
+        IncomingLikePageResponse response = new IncomingLikePageResponse();
+        response.likes = page.items();
+        response.nextCursor = page.nextCursor();
+        response.total = matchService.getMatchCounts(userId).incomingLikes();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/user/{userId}/counts")
+    @Operation(summary = "Get match counts for user", description = "Retrieve how many matches a user has, how many people they liked who have not liked them back yet, and how many people liked them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved counts"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<UserMatchCountRepository.Counts> getMatchCounts(
+            @Parameter(description = "User ID", required = true) @PathVariable Long userId) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new GlobalExceptionHandler.ResourceNotFoundException("User with id " + userId + " not found"));
+        return ResponseEntity.ok(matchService.getMatchCounts(userId));
+    }
+
+    @PostMapping("/counts/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconcile match counts", description = "Recount every user's match and like counters from the matches table and fix any that drifted (also runs nightly). Admins only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counters reconciled; returns how many were wrong"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin"),
+            @ApiResponse(responseCode = "409", description = "A run is already in progress")
+    })
+    public ResponseEntity<MatchCountReconciliationJob.Report> reconcileMatchCounts() {
+        try {
+            return ResponseEntity.ok(matchCountReconciliationJob.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/likes/cleanup")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Clean up stale likes", description = "Start removing one-way likes older than the retention period in small batches (also runs nightly). With archiving enabled they are copied to matches_archive first. Runs in the background. Admins only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Cleanup started"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin"),
+            @ApiResponse(responseCode = "409", description = "A run is already in progress")
+    })
+    public ResponseEntity<Void> cleanUpStaleLikes() {
+        try {
+            staleLikeCleanupJob.start();
+            return ResponseEntity.accepted().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/v2/user/{userId}")
+    @Operation(summary = "Get a page of matches for user", description = "Retrieve one page of a user's matches, most recent first, as the match id, the other user's id, username and image, and when they matched. Pass the returned nextCursor to get the following page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of matches"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<MatchPageResponse> getMatchPage(
+            @Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new GlobalExceptionHandler.ResourceNotFoundException("User with id " + userId + " not found"));
+        CursorPage<MatchSummary> page = matchService.getMatchPage(userId, size, cursor);
+        MatchPageResponse response = new MatchPageResponse();
+        response.matches = page.items();
+        response.nextCursor = page.nextCursor();
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{matchId}")
     @Operation(summary = "Delete a match", description = "Delete a match from the system")
     @ApiResponses(value = {
@@ -133,12 +294,36 @@ public class MatchController {
     })
     public ResponseEntity<Void> deleteMatch(
             @Parameter(description = "Match ID", required = true) @PathVariable Long matchId) {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new GlobalExceptionHandler.ResourceNotFoundException("Match with id " + matchId + " not found"));
-        matchRepository.delete(match);
+        try {
+            matchService.deleteMatch(matchId);
+        } catch (IllegalArgumentException e) {
+            throw new GlobalExceptionHandler.ResourceNotFoundException("Match with id " + matchId + " not found");
+        }
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/events/dead-letters")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get undelivered match events", description = "Retrieve the match events that could not be delivered to a listener, oldest first. Admins only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved dead letters"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin")
+    })
+    public ResponseEntity<List<MatchEventBus.DeadLetter>> getDeadLetters() {
+        return ResponseEntity.ok(matchEventBus.deadLetters());
+    }
+
+    @PostMapping("/events/dead-letters/redeliver")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Redeliver undelivered match events", description = "Deliver every dead-lettered match event again; events that fail again are dead-lettered again. Admins only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Returns the number of events redelivered"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin")
+    })
+    public ResponseEntity<Integer> redeliverDeadLetters() {
+        return ResponseEntity.ok(matchEventBus.redeliverDeadLetters());
+    }
+
     public static class CreateMatchRequest {
         public Long user1Id;
         public Long user2Id;
@@ -147,6 +332,32 @@ public class MatchController {
     public static class LikeUserResponse {
         public Match match;
         public boolean isMatch;
+        public boolean queued;
+    }
+
+    public static class BatchLikeRequest {
+        public List<Long> likedUserIds;
+    }
+
+    public static class BatchLikeResponse {
+        public int processed;
+        public List<NewMatch> newMatches;
+    }
+
+    public static class NewMatch {
+        public long matchId;
+        public long userId;
+    }
+
+    public static class MatchPageResponse {
+        public List<MatchSummary> matches;
+        public String nextCursor;
+    }
+
+    public static class IncomingLikePageResponse {
+        public List<IncomingLike> likes;
+        public String nextCursor;
+        public int total;
     }
 
     public static class HasLikedResponse {
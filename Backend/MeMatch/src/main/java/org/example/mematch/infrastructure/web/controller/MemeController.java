@@ -1,5 +1,6 @@
 package org.example.mematch.infrastructure.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -8,12 +9,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.mematch.application.service.MemeServiceImpl;
 import org.example.mematch.domain.entities.Meme;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.infrastructure.persistence.jdbc.ExportRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MemeRepository;
 import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
+import org.example.mematch.infrastructure.persistence.projection.MemeRow;
+import org.example.mematch.infrastructure.web.NdjsonResponses;
 import org.example.mematch.infrastructure.web.exception.GlobalExceptionHandler;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,13 +31,19 @@ public class MemeController {
     private final MemeServiceImpl memeService;
     private final UserRepository userRepository;
     private final MemeRepository memeRepository;
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
 
     public MemeController(MemeServiceImpl memeService, 
                          UserRepository userRepository,
-                         MemeRepository memeRepository) {
+                         MemeRepository memeRepository,
+                         ExportRepository exportRepository,
+                         ObjectMapper objectMapper) {
         this.memeService = memeService;
         this.userRepository = userRepository;
         this.memeRepository = memeRepository;
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -43,6 +54,13 @@ public class MemeController {
         return ResponseEntity.ok(memes);
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all memes", description = "Stream every meme as newline-delimited JSON, one object per line with the poster as an id, ordered by id. Memory use does not depend on the number of memes.")
+    @ApiResponse(responseCode = "200", description = "Memes streamed")
+    public ResponseEntity<StreamingResponseBody> exportMemes() {
+        return NdjsonResponses.<MemeRow>stream(objectMapper, exportRepository::streamMemes);
+    }
+
     @GetMapping("/{memeId}")
     @Operation(summary = "Get meme by ID", description = "Retrieve a specific meme by its ID")
     @ApiResponses(value = {
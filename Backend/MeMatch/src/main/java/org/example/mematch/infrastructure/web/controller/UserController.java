@@ -1,18 +1,27 @@
 package org.example.mematch.infrastructure.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.mematch.application.feed.CoLikeSimilarityJob;
+import org.example.mematch.application.feed.FeedPrecomputeJob;
 import org.example.mematch.application.service.UserServiceImpl;
 import org.example.mematch.domain.entities.Meme;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.CursorPage;
 import org.example.mematch.domain.valueobjects.HumourTag;
+import org.example.mematch.infrastructure.persistence.jdbc.ExportRepository;
+import org.example.mematch.infrastructure.persistence.projection.UserRow;
+import org.example.mematch.infrastructure.web.NdjsonResponses;
 import org.example.mematch.infrastructure.web.exception.GlobalExceptionHandler;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,9 +31,19 @@ import java.util.List;
 public class UserController {
 
     private final UserServiceImpl userService;
+    private final FeedPrecomputeJob feedPrecomputeJob;
+    private final CoLikeSimilarityJob coLikeSimilarityJob;
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserServiceImpl userService) {
+    public UserController(UserServiceImpl userService, FeedPrecomputeJob feedPrecomputeJob,
+                          CoLikeSimilarityJob coLikeSimilarityJob, ExportRepository exportRepository,
+                          ObjectMapper objectMapper) {
         this.userService = userService;
+        this.feedPrecomputeJob = feedPrecomputeJob;
+        this.coLikeSimilarityJob = coLikeSimilarityJob;
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -35,8 +54,15 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all users", description = "Stream every user as newline-delimited JSON, one object per line, ordered by id. Memory use does not depend on the number of users.")
+    @ApiResponse(responseCode = "200", description = "Users streamed")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return NdjsonResponses.<UserRow>stream(objectMapper, exportRepository::streamUsers);
+    }
+
     @GetMapping("/feed/{userId}")
-    @Operation(summary = "Get users for feed", description = "Retrieve users for the feed page, excluding the current user and users that have already matched")
+    @Operation(summary = "Get users for feed", description = "Retrieve the next users of the feed, excluding the current user and users they have already liked or matched with. Each call returns users not served by the previous calls")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list of users for feed"),
             @ApiResponse(responseCode = "404", description = "User not found")
@@ -47,6 +73,72 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/feed/v2/{userId}")
+    @Operation(summary = "Get a page of the feed", description = "Retrieve one page of feed users in a stable order. Pass the returned nextCursor to get the following page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of the feed"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<FeedPageResponse> getFeedPage(
+            @Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        CursorPage<User> page = userService.getFeedPage(userId, size, cursor);
+        FeedPageResponse response = new FeedPageResponse();
+        response.users = page.items();
+        response.nextCursor = page.nextCursor();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/feed/precompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Precompute feeds", description = "Recompute the ranked feed candidates of every user (also runs nightly). Use after bulk imports. Admins only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Feeds recomputed; returns users processed and throughput"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin"),
+            @ApiResponse(responseCode = "409", description = "Snapshot not loaded yet or a run is already in progress")
+    })
+    public ResponseEntity<FeedPrecomputeJob.Report> precomputeFeeds() {
+        try {
+            return ResponseEntity.ok(feedPrecomputeJob.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/{userId}/similar")
+    @Operation(summary = "Get users with a similar sense of humour", description = "Retrieve the users who liked the most of the same memes, most similar first, excluding users already liked or matched with. Computed nightly.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved similar users"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<List<User>> getSimilarUsers(
+            @Parameter(description = "User ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "Maximum number of users (1-50)") @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(userService.getSimilarUsers(userId, limit));
+        } catch (IllegalArgumentException e) {
+            throw new GlobalExceptionHandler.ResourceNotFoundException(e.getMessage());
+        }
+    }
+
+    @PostMapping("/similarities/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recompute similar users", description = "Recompute every user's most similar users from their meme likes (also runs nightly). Admins only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Similarities recomputed; returns users processed and throughput"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin"),
+            @ApiResponse(responseCode = "409", description = "A run is already in progress")
+    })
+    public ResponseEntity<CoLikeSimilarityJob.Report> recomputeSimilarities() {
+        try {
+            return ResponseEntity.ok(coLikeSimilarityJob.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieve a specific user by their ID")
     @ApiResponses(value = {
@@ -182,6 +274,11 @@ public class UserController {
         public List<HumourTag> humourTags;
     }
 
+    public static class FeedPageResponse {
+        public List<User> users;
+        public String nextCursor;
+    }
+
     public static class UpdatePreferencesRequest {
         public String genderPreference;
         public Integer ageMinPreference;
@@ -0,0 +1,151 @@
+package org.example.mematch.application.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchEventBusTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MatchEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void publish_ShouldDeliverEveryEventToEveryListenerInBatches() throws InterruptedException {
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        bus = new MatchEventBus(List.of(first, second), meterRegistry, 100, 50, 20, 2, 3, 10);
+        bus.start();
+
+        for (long liked = 2; liked <= 21; liked++) {
+            bus.publish(MatchEvent.ofSwipe(1L, liked, false));
+        }
+        bus.publish(MatchEvent.ofSwipe(30L, 1L, true));
+        bus.stop();
+
+        assertEquals(21, first.events().size());
+        assertEquals(21, second.events().size());
+        assertTrue(first.batches.get() < 21, "events should share batches");
+        assertTrue(first.events().stream().anyMatch(e -> e instanceof MatchEvent.MatchCreated));
+        assertEquals(21.0, meterRegistry.get("mematch.events.published").counter().count());
+    }
+
+    @Test
+    void publish_WhenQueueFull_ShouldDeadLetterWithoutBlocking() {
+        bus = new MatchEventBus(List.of(new RecordingListener()), meterRegistry, 1, 10, 20, 1, 3, 10);
+
+        // Not started, so nothing drains the queue
+        bus.publish(MatchEvent.ofSwipe(1L, 2L, false));
+        bus.publish(MatchEvent.ofSwipe(1L, 3L, false));
+
+        assertEquals(1, bus.queuedCount());
+        assertEquals(1, bus.deadLetterCount());
+        MatchEventBus.DeadLetter letter = bus.deadLetters().get(0);
+        assertEquals(MatchEventBus.ALL_LISTENERS, letter.listener());
+        assertEquals("queue_full", letter.reason());
+        assertEquals(1.0, meterRegistry.get("mematch.events.dead_letters").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void deliver_WhenListenerKeepsFailing_ShouldRetryThenDeadLetterEachEvent() {
+        FailingListener failing = new FailingListener(Integer.MAX_VALUE);
+        bus = new MatchEventBus(List.of(failing), meterRegistry, 10, 10, 20, 1, 3, 10);
+        List<MatchEvent> batch = List.of(MatchEvent.ofSwipe(1L, 2L, false), MatchEvent.ofSwipe(3L, 1L, true));
+
+        bus.deliver(failing, batch);
+
+        assertEquals(3, failing.calls.get());
+        assertEquals(2, bus.deadLetterCount());
+        assertEquals("FailingListener", bus.deadLetters().get(0).listener());
+        assertEquals(2.0, meterRegistry.get("mematch.events.dead_letters").tag("reason", "listener_failed").counter().count());
+    }
+
+    @Test
+    void deliver_WhenListenerRecovers_ShouldNotDeadLetter() {
+        FailingListener flaky = new FailingListener(1);
+        bus = new MatchEventBus(List.of(flaky), meterRegistry, 10, 10, 20, 1, 3, 10);
+
+        bus.deliver(flaky, List.of(MatchEvent.ofSwipe(1L, 2L, false)));
+
+        assertEquals(2, flaky.calls.get());
+        assertEquals(0, bus.deadLetterCount());
+    }
+
+    @Test
+    void redeliverDeadLetters_ShouldDeliverToTheListenerThatFailed() {
+        RecordingListener healthy = new RecordingListener();
+        FailingListener flaky = new FailingListener(3);
+        bus = new MatchEventBus(List.of(healthy, flaky), meterRegistry, 10, 10, 20, 1, 3, 10);
+        MatchEvent event = MatchEvent.ofSwipe(1L, 2L, true);
+        bus.deliver(flaky, List.of(event));
+
+        int redelivered = bus.redeliverDeadLetters();
+
+        assertEquals(1, redelivered);
+        assertEquals(0, bus.deadLetterCount());
+        assertEquals(4, flaky.calls.get());
+        assertTrue(healthy.events().isEmpty());
+    }
+
+    @Test
+    void deadLetters_WhenFull_ShouldKeepTheNewest() {
+        bus = new MatchEventBus(List.of(), meterRegistry, 1, 10, 20, 1, 3, 2);
+
+        for (long liked = 2; liked <= 5; liked++) {
+            bus.publish(MatchEvent.ofSwipe(1L, liked, false));
+        }
+
+        List<MatchEventBus.DeadLetter> letters = bus.deadLetters();
+        assertEquals(2, letters.size());
+        assertEquals(5L, ((MatchEvent.OneWayLikeCreated) letters.get(1).event()).likedId());
+    }
+
+    private static class RecordingListener implements MatchEventListener {
+        private final List<MatchEvent> received = new ArrayList<>();
+        private final AtomicInteger batches = new AtomicInteger();
+
+        @Override
+        public synchronized void onEvents(List<MatchEvent> events) {
+            batches.incrementAndGet();
+            received.addAll(events);
+        }
+
+        synchronized List<MatchEvent> events() {
+            return List.copyOf(received);
+        }
+    }
+
+    private static class FailingListener implements MatchEventListener {
+        private final int failures;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FailingListener(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public void onEvents(List<MatchEvent> events) {
+            if (calls.incrementAndGet() <= failures) {
+                throw new IllegalStateException("listener down");
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.infrastructure.persistence.jdbc.UserSimilarityRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.UserSimilarityRepository.Similarity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CoLikeSimilarityJobTest {
+
+    private UserSimilarityRepository repository;
+    private final List<Similarity> written = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserSimilarityRepository.class);
+        doAnswer(invocation -> {
+            written.addAll(invocation.getArgument(2));
+            return null;
+        }).when(repository).replaceRange(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void likeMatrix_ShouldBuildRowsAndTransposedColumns() {
+        LikeMatrix matrix = new LikeMatrix.Builder()
+                .add(10L, 100L).add(10L, 200L)
+                .add(20L, 200L)
+                .add(30L, 100L).add(30L, 200L).add(30L, 300L)
+                .build();
+
+        assertEquals(3, matrix.userCount());
+        assertEquals(3, matrix.memeCount());
+        assertEquals(6, matrix.likeCount());
+        assertArrayEquals(new long[]{10L, 20L, 30L}, matrix.userIds);
+        assertEquals(3, matrix.userDegree(2));
+        // Meme 200 (index 1) was liked by all three users
+        assertEquals(3, matrix.memeDegree(1));
+        assertArrayEquals(new int[]{0, 1, 2},
+                java.util.Arrays.copyOfRange(matrix.userIndexes, matrix.colStart[1], matrix.colStart[2]));
+    }
+
+    @Test
+    void likeMatrix_ShouldRejectUnorderedUsers() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder().add(2L, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(1L, 1L));
+    }
+
+    @Test
+    void computeRange_ShouldRankByCosineOfCoLikes() {
+        LikeMatrix matrix = new LikeMatrix.Builder()
+                .add(1L, 100L).add(1L, 200L)
+                .add(2L, 100L).add(2L, 200L)
+                .add(3L, 100L).add(3L, 200L).add(3L, 300L).add(3L, 400L)
+                .add(4L, 500L)
+                .build();
+        CoLikeSimilarityJob job = new CoLikeSimilarityJob(mock(JdbcTemplate.class), repository, 10, 100, 1);
+
+        job.computeRange(matrix, new CoLikeSimilarityJob.Accumulator(matrix.userCount()), 0, 1, new AtomicLong());
+
+        verify(repository).replaceRange(eq(Long.MIN_VALUE), eq(1L), anyList());
+        assertEquals(2, written.size());
+        assertEquals(2L, written.get(0).similarUserId());
+        assertEquals(2, written.get(0).coLikes());
+        assertEquals(1.0, written.get(0).score(), 1e-9);
+        assertEquals(3L, written.get(1).similarUserId());
+        assertEquals(2, written.get(1).coLikes());
+        assertEquals(2 / Math.sqrt(8), written.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void computeRange_ShouldSkipMemesWithTooManyLikers() {
+        LikeMatrix matrix = new LikeMatrix.Builder()
+                .add(1L, 100L).add(1L, 200L)
+                .add(2L, 100L).add(2L, 200L)
+                .add(3L, 100L)
+                .build();
+        CoLikeSimilarityJob job = new CoLikeSimilarityJob(mock(JdbcTemplate.class), repository, 10, 2, 1);
+
+        job.computeRange(matrix, new CoLikeSimilarityJob.Accumulator(matrix.userCount()), 0, 1, new AtomicLong());
+
+        // Meme 100 has three likers, so only meme 200 links user 1 to user 2
+        assertEquals(1, written.size());
+        assertEquals(2L, written.get(0).similarUserId());
+        assertEquals(1, written.get(0).coLikes());
+    }
+
+    @Test
+    void compute_ShouldMatchSequentialResultAcrossParallelRanges() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        int users = CoLikeSimilarityJob.RANGE_SIZE * 3 + 5;
+        for (long user = 1; user <= users; user++) {
+            for (long meme = user % 7; meme < 40; meme += 1 + user % 5) {
+                builder.add(user, meme);
+            }
+        }
+        LikeMatrix matrix = builder.build();
+
+        CoLikeSimilarityJob.Report parallel = new CoLikeSimilarityJob(mock(JdbcTemplate.class), repository, 5, 1000, 4)
+                .compute(matrix, System.nanoTime());
+        List<Similarity> parallelRows = sorted(written);
+        written.clear();
+        new CoLikeSimilarityJob(mock(JdbcTemplate.class), repository, 5, 1000, 1).compute(matrix, System.nanoTime());
+
+        assertEquals(users, parallel.users());
+        assertEquals(users * 5L, parallel.similarities());
+        assertEquals(sorted(written), parallelRows);
+        for (Similarity row : parallelRows) {
+            assertNotEquals(row.userId(), row.similarUserId());
+        }
+    }
+
+    @Test
+    void compute_WhenOneRangeFailsToWrite_ShouldStillWriteTheOthers() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        int users = CoLikeSimilarityJob.RANGE_SIZE * 2;
+        for (long user = 1; user <= users; user++) {
+            builder.add(user, 1L).add(user, 2L);
+        }
+        doThrow(new DataIntegrityViolationException("similar user deleted"))
+                .when(repository).replaceRange(eq(Long.MIN_VALUE), anyLong(), anyList());
+        CoLikeSimilarityJob job = new CoLikeSimilarityJob(mock(JdbcTemplate.class), repository, 5, 1000, 2);
+
+        CoLikeSimilarityJob.Report report = job.compute(builder.build(), System.nanoTime());
+
+        assertEquals(CoLikeSimilarityJob.RANGE_SIZE * 5L, report.similarities());
+        verify(repository, times(2)).replaceRange(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void compute_ShouldClearAllRowsWhenThereAreNoLikes() {
+        CoLikeSimilarityJob job = new CoLikeSimilarityJob(mock(JdbcTemplate.class), repository, 5, 1000, 1);
+
+        CoLikeSimilarityJob.Report report = job.compute(new LikeMatrix.Builder().build(), System.nanoTime());
+
+        assertEquals(0, report.users());
+        verify(repository).replaceRange(Long.MIN_VALUE, Long.MAX_VALUE, List.of());
+    }
+
+    private static List<Similarity> sorted(List<Similarity> rows) {
+        List<Similarity> copy = new ArrayList<>(rows);
+        copy.sort(Comparator.comparingLong(Similarity::userId).thenComparingInt(Similarity::rank));
+        return copy;
+    }
+}
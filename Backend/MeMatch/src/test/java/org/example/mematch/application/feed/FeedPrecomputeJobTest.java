@@ -0,0 +1,118 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.HumourTag;
+import org.example.mematch.infrastructure.persistence.jdbc.FeedCandidateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class FeedPrecomputeJobTest {
+
+    private ProfileSnapshot snapshot;
+    private SwipedUserIndex swipedUserIndex;
+    private FeedCandidateRepository repository;
+    private final List<long[]> written = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        snapshot = spy(new ProfileSnapshot(mock(JdbcTemplate.class)));
+        doReturn(true).when(snapshot).isReady();
+        swipedUserIndex = mock(SwipedUserIndex.class);
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        when(swipedUserIndex.swipedBy(anyLong())).thenReturn(id -> false);
+        repository = mock(FeedCandidateRepository.class);
+        doAnswer(invocation -> {
+            written.addAll(invocation.getArgument(2));
+            return null;
+        }).when(repository).replaceRange(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void run_ShouldRankEveryUserAcrossRangesAndWriteBatches() {
+        int users = FeedPrecomputeJob.RANGE_SIZE * 3 + 7;
+        for (long id = 1; id <= users; id++) {
+            snapshot.upsert(user(id, id % 2 == 0 ? "Female" : "Male",
+                    id % 3 == 0 ? List.of(HumourTag.PUNS) : List.of()));
+        }
+        FeedPrecomputeJob job = new FeedPrecomputeJob(snapshot, swipedUserIndex, repository, 5, 4);
+
+        FeedPrecomputeJob.Report report = job.run();
+
+        assertEquals(users, report.users());
+        assertEquals(users * 5L, report.candidates());
+        assertEquals(users * 5, written.size());
+        assertTrue(report.usersPerSecond() > 0);
+        verify(repository, times(4)).replaceRange(anyLong(), anyLong(), anyList());
+        // Every user gets candidates in rank order and never themselves
+        for (long[] row : written) {
+            assertNotEquals(row[0], row[2]);
+        }
+    }
+
+    @Test
+    void computeRange_ShouldApplyViewerPreferencesFromSnapshot() {
+        User viewer = user(1L, "Male", List.of());
+        viewer.updatePreferences("Female", null, null, List.of(HumourTag.PUNS));
+        snapshot.upsert(viewer);
+        snapshot.upsert(user(2L, "Female", List.of()));
+        snapshot.upsert(user(3L, "Female", List.of(HumourTag.PUNS)));
+        snapshot.upsert(user(4L, "Male", List.of(HumourTag.PUNS)));
+        FeedPrecomputeJob job = new FeedPrecomputeJob(snapshot, swipedUserIndex, repository, 10, 1);
+
+        job.computeRange(new long[]{1L}, 0, 1, new java.util.concurrent.atomic.AtomicLong());
+
+        verify(repository).replaceRange(eq(1L), eq(1L), anyList());
+        assertEquals(2, written.size());
+        assertEquals(3L, written.get(0)[2]);
+        assertEquals(2L, written.get(1)[2]);
+    }
+
+    @Test
+    void run_WhenOneRangeFailsToWrite_ShouldStillWriteTheOthers() {
+        int users = FeedPrecomputeJob.RANGE_SIZE * 2;
+        for (long id = 1; id <= users; id++) {
+            snapshot.upsert(user(id, "Female", List.of()));
+        }
+        doThrow(new DataIntegrityViolationException("candidate deleted"))
+                .when(repository).replaceRange(eq(1L), anyLong(), anyList());
+        FeedPrecomputeJob job = new FeedPrecomputeJob(snapshot, swipedUserIndex, repository, 5, 2);
+
+        FeedPrecomputeJob.Report report = job.run();
+
+        assertEquals(FeedPrecomputeJob.RANGE_SIZE * 5L, report.candidates());
+        verify(repository, times(2)).replaceRange(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void run_BeforeSnapshotLoads_ShouldRefuse() {
+        doReturn(false).when(snapshot).isReady();
+        FeedPrecomputeJob job = new FeedPrecomputeJob(snapshot, swipedUserIndex, repository, 5, 1);
+
+        assertThrows(IllegalStateException.class, job::run);
+        verifyNoInteractions(repository);
+    }
+
+    private static User user(long id, String gender, List<HumourTag> tags) {
+        User user = User.create("u" + id + "@example.com", "user" + id, "hash");
+        user.updateProfile(30, gender, "Iasi", "Romania", tags);
+        try {
+            java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(user, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.mematch.application.feed;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedQueueCacheTest {
+
+    private static RankedCandidates ranked(long... ids) {
+        int[] scores = new int[ids.length];
+        return new RankedCandidates(ids, scores, ids.length);
+    }
+
+    @Test
+    void poll_WithoutQueue_ShouldReturnNull() {
+        FeedQueueCache cache = new FeedQueueCache(10, 3, 100);
+
+        assertNull(cache.poll(1L, 5));
+    }
+
+    @Test
+    void poll_ShouldPopInRankOrderAfterServedCandidates() {
+        FeedQueueCache cache = new FeedQueueCache(10, 3, 100);
+        cache.prime(1L, ranked(10L, 11L, 12L, 13L, 14L), 2, false);
+
+        assertArrayEquals(new long[]{12L, 13L}, cache.poll(1L, 2));
+        assertArrayEquals(new long[]{14L}, cache.poll(1L, 2));
+        assertArrayEquals(new long[0], cache.poll(1L, 2));
+    }
+
+    @Test
+    void poll_BelowLowWaterMark_ShouldRequestRefillAfterTail() {
+        FeedQueueCache cache = new FeedQueueCache(10, 3, 100);
+        cache.prime(1L, ranked(10L, 11L, 12L, 13L, 14L, 15L), 0, false);
+        assertNull(cache.takeRefillRequest());
+
+        cache.poll(1L, 4);
+        FeedQueueCache.RefillRequest request = cache.takeRefillRequest();
+
+        assertNotNull(request);
+        assertEquals(1L, request.userId());
+        assertEquals(15L, request.after().get(1));
+        assertEquals(8, request.room());
+        assertNull(cache.takeRefillRequest());
+
+        cache.completeRefill(request, ranked(16L, 17L), true);
+        assertEquals(4, cache.queuedCount(1L));
+        assertArrayEquals(new long[]{14L, 15L, 16L, 17L}, cache.poll(1L, 10));
+    }
+
+    @Test
+    void completeRefill_AfterInvalidate_ShouldBeDiscarded() {
+        FeedQueueCache cache = new FeedQueueCache(10, 3, 100);
+        cache.prime(1L, ranked(10L), 0, false);
+        FeedQueueCache.RefillRequest request = cache.takeRefillRequest();
+
+        cache.invalidate(1L);
+        cache.completeRefill(request, ranked(11L, 12L), false);
+
+        assertNull(cache.poll(1L, 5));
+    }
+
+    @Test
+    void takeRefillRequest_WhenExhaustedQueueDrained_ShouldRestartFromTop() {
+        FeedQueueCache cache = new FeedQueueCache(10, 3, 100);
+        cache.prime(1L, ranked(10L, 11L), 2, true);
+
+        FeedQueueCache.RefillRequest request = cache.takeRefillRequest();
+
+        assertNotNull(request);
+        assertNull(request.after());
+        assertEquals(10, request.room());
+    }
+
+    @Test
+    void prime_BeyondMaxUsers_ShouldEvictLeastRecentlyUsed() {
+        FeedQueueCache cache = new FeedQueueCache(10, 3, 2);
+        cache.prime(1L, ranked(10L, 11L, 12L, 13L), 0, false);
+        cache.prime(2L, ranked(10L, 11L, 12L, 13L), 0, false);
+        cache.poll(1L, 1);
+
+        cache.prime(3L, ranked(10L, 11L, 12L, 13L), 0, false);
+
+        assertEquals(2, cache.activeQueues());
+        assertEquals(-1, cache.queuedCount(2L));
+        assertEquals(3, cache.queuedCount(1L));
+    }
+}
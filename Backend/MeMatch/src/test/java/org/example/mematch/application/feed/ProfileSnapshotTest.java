@@ -0,0 +1,201 @@
+package org.example.mematch.application.feed;
+
+import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.HumourTag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ProfileSnapshotTest {
+
+    private ProfileSnapshot snapshot;
+    private User viewer;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new ProfileSnapshot(mock(JdbcTemplate.class));
+        viewer = user(1L, 30, "Male", List.of());
+        snapshot.upsert(viewer);
+        snapshot.upsert(user(2L, 25, "Female", List.of(HumourTag.PUNS)));
+        snapshot.upsert(user(3L, 27, "female", List.of(HumourTag.PUNS, HumourTag.IRONY)));
+        snapshot.upsert(user(4L, 45, "Female", List.of(HumourTag.PUNS, HumourTag.IRONY)));
+        snapshot.upsert(user(5L, 26, "Male", List.of(HumourTag.PUNS, HumourTag.IRONY)));
+        snapshot.upsert(user(6L, null, "Female", List.of()));
+    }
+
+    @Test
+    void selectTopK_ShouldApplyPreferencesAndRankByCompatibility() {
+        viewer.updatePreferences("FEMALE", 20, 30, List.of(HumourTag.PUNS, HumourTag.IRONY));
+
+        long[] ids = select(FeedQuery.of(viewer, null), id -> false, 10);
+
+        assertArrayEquals(new long[]{3L, 2L}, ids);
+    }
+
+    @Test
+    void selectTopK_WithoutPreferences_ShouldReturnEveryoneButViewerInIdOrder() {
+        long[] ids = select(FeedQuery.of(viewer, null), id -> false, 10);
+
+        assertArrayEquals(new long[]{2L, 3L, 4L, 5L, 6L}, ids);
+    }
+
+    @Test
+    void selectTopK_ShouldSkipExcludedUsers() {
+        long[] ids = select(FeedQuery.of(viewer, null), id -> id == 3L || id == 5L, 10);
+
+        assertArrayEquals(new long[]{2L, 4L, 6L}, ids);
+    }
+
+    @Test
+    void selectTopK_ShouldCountCandidatesThroughEachFilter() {
+        viewer.updatePreferences("Female", 20, 30, List.of());
+        FeedScanStats stats = new FeedScanStats();
+
+        snapshot.selectTopK(FeedQuery.of(viewer, null), id -> id == 3L, new TopKSelector(10), stats);
+
+        assertEquals(5, stats.examined());
+        assertEquals(4, stats.passedGender());
+        assertEquals(2, stats.passedAge());
+        assertEquals(2, stats.passedCursor());
+        assertEquals(2, stats.checkedExclusion());
+        assertEquals(1, stats.offered());
+    }
+
+    @Test
+    void selectTopK_WithUnknownGenderPreference_ShouldReturnNothing() {
+        viewer.updatePreferences("Other", null, null, List.of());
+
+        long[] ids = select(FeedQuery.of(viewer, null), id -> false, 10);
+
+        assertEquals(0, ids.length);
+    }
+
+    @Test
+    void upsert_ShouldReplaceExistingRow() {
+        snapshot.upsert(user(2L, 50, "Female", List.of()));
+        viewer.updatePreferences("Female", 20, 30, List.of());
+
+        long[] ids = select(FeedQuery.of(viewer, null), id -> false, 10);
+
+        assertArrayEquals(new long[]{3L}, ids);
+        assertEquals(6, snapshot.size());
+    }
+
+    @Test
+    void selectTopK_ShouldRankSameCityThenSameCountryThenElsewhere() {
+        snapshot.upsert(user(7L, 28, "Female", "Cluj", "Romania", List.of(HumourTag.PUNS, HumourTag.IRONY)));
+        snapshot.upsert(user(8L, 28, "Female", "Paris", "France", List.of(HumourTag.PUNS, HumourTag.IRONY)));
+        viewer.updatePreferences("Female", 20, 30, List.of(HumourTag.PUNS, HumourTag.IRONY));
+
+        long[] ids = select(FeedQuery.of(viewer, null), id -> false, 10);
+
+        assertArrayEquals(new long[]{3L, 2L, 7L, 8L}, ids);
+    }
+
+    @Test
+    void selectTopK_ShouldScoreLikeFeedQuery() {
+        // The SQL fallback ranks with FeedQuery.score; cursors are only portable if both agree
+        User cluj = user(7L, 28, "Female", "Cluj", "Romania", List.of(HumourTag.PUNS));
+        User paris = user(8L, 28, "Female", "Paris", "France", List.of(HumourTag.IRONY));
+        snapshot.upsert(cluj);
+        snapshot.upsert(paris);
+        viewer.updatePreferences(null, null, null, List.of(HumourTag.PUNS, HumourTag.IRONY));
+        FeedQuery query = FeedQuery.of(viewer, null);
+
+        TopKSelector top = new TopKSelector(10);
+        snapshot.selectTopK(query, id -> false, top, new FeedScanStats());
+        long[] ids = new long[10];
+        int[] scores = new int[10];
+        int n = top.drainInto(ids, scores);
+
+        List<User> users = List.of(user(2L, 25, "Female", List.of(HumourTag.PUNS)),
+                user(3L, 27, "female", List.of(HumourTag.PUNS, HumourTag.IRONY)), cluj, paris);
+        for (User candidate : users) {
+            int expected = query.score(HumourTag.maskOf(candidate.getHumourTags()), candidate.getCountry(), candidate.getCity());
+            int index = java.util.stream.IntStream.range(0, n).filter(i -> ids[i] == candidate.getId()).findFirst().orElseThrow();
+            assertEquals(expected, scores[index], "score of user " + candidate.getId());
+        }
+        assertEquals(ProfileSnapshot.SAME_CITY_BONUS + 2, query.score(HumourTag.maskOf(List.of(HumourTag.PUNS, HumourTag.IRONY)), " romania", "IASI"));
+    }
+
+    @Test
+    void selectTopK_WhenCityFillsThePage_ShouldNotScanOtherLocations() {
+        snapshot.upsert(user(7L, 28, "Female", "Cluj", "Romania", List.of()));
+        snapshot.upsert(user(8L, 28, "Female", "Paris", "France", List.of()));
+
+        TopKSelector top = new TopKSelector(2);
+        FeedScanStats stats = new FeedScanStats();
+        snapshot.selectTopK(FeedQuery.of(viewer, null), id -> false, top, stats);
+
+        assertEquals(5, stats.examined());
+        long[] ids = new long[2];
+        top.drainInto(ids, new int[2]);
+        assertArrayEquals(new long[]{2L, 3L}, ids);
+    }
+
+    @Test
+    void selectTopK_WhenCountryTooSmall_ShouldFallBackToOtherCountries() {
+        snapshot.upsert(user(8L, 28, "Female", "Paris", "France", List.of()));
+        viewer.updatePreferences("Female", 20, 30, List.of());
+
+        long[] ids = select(FeedQuery.of(viewer, null), id -> false, 3);
+
+        assertArrayEquals(new long[]{2L, 3L, 8L}, ids);
+    }
+
+    @Test
+    void upsert_WhenLocationChanges_ShouldMovePartition() {
+        snapshot.upsert(user(2L, 25, "Female", "Paris", "France", List.of(HumourTag.PUNS)));
+
+        long[] ids = select(FeedQuery.of(viewer, null), id -> false, 10);
+
+        assertArrayEquals(new long[]{3L, 4L, 5L, 6L, 2L}, ids);
+        assertEquals(6, snapshot.size());
+    }
+
+    @Test
+    void queryFor_ShouldRebuildViewerPreferencesFromSnapshot() {
+        viewer.updatePreferences("Female", 20, 30, List.of(HumourTag.PUNS, HumourTag.IRONY));
+        snapshot.upsert(viewer);
+
+        FeedQuery query = snapshot.queryFor(1L, null);
+
+        assertEquals(FeedQuery.of(viewer, null).preferenceMask(), query.preferenceMask());
+        assertEquals("Female", query.genderPreference());
+        assertEquals(20, query.ageMinPreference());
+        assertEquals(30, query.ageMaxPreference());
+        assertEquals("romania", query.country());
+        assertArrayEquals(select(FeedQuery.of(viewer, null), id -> false, 10), select(query, id -> false, 10));
+        assertNull(snapshot.queryFor(99L, null));
+    }
+
+    private long[] select(FeedQuery query, java.util.function.LongPredicate excluded, int k) {
+        TopKSelector top = new TopKSelector(k);
+        snapshot.selectTopK(query, excluded, top, new FeedScanStats());
+        long[] ids = new long[k];
+        int n = top.drainInto(ids, new int[k]);
+        return java.util.Arrays.copyOf(ids, n);
+    }
+
+    private static User user(long id, Integer age, String gender, List<HumourTag> tags) {
+        return user(id, age, gender, "Iasi", "Romania", tags);
+    }
+
+    private static User user(long id, Integer age, String gender, String city, String country, List<HumourTag> tags) {
+        User user = User.create("u" + id + "@example.com", "user" + id, "hash");
+        user.updateProfile(age, gender, city, country, tags);
+        try {
+            java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(user, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.mematch.application.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SwipedUserIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SwipedUserIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        index = new SwipedUserIndex(jdbcTemplate);
+    }
+
+    @Test
+    void recordSwipe_OneWay_ShouldOnlyMarkTheLiker() {
+        index.recordSwipe(1L, 2L, false);
+
+        assertTrue(index.hasSwiped(1L, 2L));
+        assertFalse(index.hasSwiped(2L, 1L));
+        assertFalse(index.areMatched(1L, 2L));
+        assertFalse(index.hasMatches(1L));
+    }
+
+    @Test
+    void recordSwipe_Matched_ShouldLinkBothUsers() {
+        index.recordSwipe(1L, 2L, true);
+        index.recordSwipe(3L, 1L, true);
+
+        assertTrue(index.hasSwiped(2L, 1L));
+        assertTrue(index.areMatched(1L, 2L));
+        assertTrue(index.areMatched(2L, 1L));
+        assertFalse(index.areMatched(2L, 3L));
+        assertTrue(index.hasMatches(3L));
+        // Both directions of two matches
+        assertEquals(4, index.swipeCount());
+    }
+
+    @Test
+    void removeSwipe_ShouldForgetSwipeAndMatch() {
+        index.recordSwipe(1L, 2L, true);
+
+        index.removeSwipe(1L, 2L, true);
+
+        assertFalse(index.hasSwiped(1L, 2L));
+        assertFalse(index.areMatched(2L, 1L));
+        assertFalse(index.hasMatches(1L));
+        assertEquals(0, index.swipeCount());
+    }
+
+    @Test
+    void load_WhenRowIsDeletedDuringTheScan_ShouldNotBringItBack() throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(1L);
+        when(row.getLong(2)).thenReturn(2L);
+        when(row.getBoolean(3)).thenReturn(true);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            // The scan read the match, then the delete committed before the scan finished
+            handler.processRow(row);
+            index.removeSwipe(1L, 2L, true);
+            // A swipe made meanwhile that the scan never saw
+            index.recordSwipe(3L, 4L, false);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        index.load();
+
+        assertTrue(index.isReady());
+        assertFalse(index.hasSwiped(1L, 2L));
+        assertFalse(index.areMatched(2L, 1L));
+        assertTrue(index.hasSwiped(3L, 4L));
+        assertEquals(1, index.swipeCount());
+    }
+}
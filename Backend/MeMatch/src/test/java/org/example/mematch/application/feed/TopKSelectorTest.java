@@ -0,0 +1,76 @@
+package org.example.mematch.application.feed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void drainInto_ShouldReturnBestFirstWithIdTieBreak() {
+        TopKSelector top = new TopKSelector(3);
+        top.offer(5L, 1);
+        top.offer(2L, 3);
+        top.offer(9L, 3);
+        top.offer(1L, 0);
+        top.offer(4L, 3);
+
+        long[] ids = new long[3];
+        int[] scores = new int[3];
+        int n = top.drainInto(ids, scores);
+
+        assertEquals(3, n);
+        assertArrayEquals(new long[]{2L, 4L, 9L}, ids);
+        assertArrayEquals(new int[]{3, 3, 3}, scores);
+        assertEquals(0, top.size());
+    }
+
+    @Test
+    void offer_WithFewerCandidatesThanK_ShouldKeepAll() {
+        TopKSelector top = new TopKSelector(10);
+        top.offer(3L, 0);
+        top.offer(1L, 2);
+
+        long[] ids = new long[10];
+        int[] scores = new int[10];
+        int n = top.drainInto(ids, scores);
+
+        assertEquals(2, n);
+        assertEquals(1L, ids[0]);
+        assertEquals(3L, ids[1]);
+    }
+
+    @Test
+    void offer_ShouldMatchFullSortOnRandomInput() {
+        Random random = new Random(42);
+        int count = 5_000;
+        long[] allIds = new long[count];
+        int[] allScores = new int[count];
+        TopKSelector top = new TopKSelector(50);
+        for (int i = 0; i < count; i++) {
+            allIds[i] = i + 1;
+            allScores[i] = random.nextInt(26);
+            top.offer(allIds[i], allScores[i]);
+        }
+
+        int[] expected = IntStream.range(0, count).boxed()
+                .sorted((a, b) -> TopKSelector.ranksBefore(allScores[a], allIds[a], allScores[b], allIds[b]) ? -1 : 1)
+                .limit(50)
+                .mapToInt(i -> (int) allIds[i])
+                .toArray();
+        long[] ids = new long[50];
+        top.drainInto(ids, new int[50]);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(expected[i], ids[i]);
+        }
+    }
+
+    @Test
+    void constructor_WithNonPositiveK_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector(0));
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.mematch.application.like;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.mematch.infrastructure.persistence.jdbc.UserLikeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LikedMemeCacheTest {
+
+    private UserLikeRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserLikeRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private void liked(long userId, long... memeIds) {
+        doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(1);
+            for (long memeId : memeIds) {
+                consumer.accept(memeId);
+            }
+            return null;
+        }).when(repository).findLikedMemeIds(eq(userId), any());
+    }
+
+    @Test
+    void hasLiked_ShouldLoadOnceThenAnswerFromMemory() {
+        liked(1L, 10L, 70_000L);
+        LikedMemeCache cache = new LikedMemeCache(repository, meterRegistry, 10);
+
+        assertTrue(cache.hasLiked(1L, 10L));
+        assertTrue(cache.hasLiked(1L, 70_000L));
+        assertFalse(cache.hasLiked(1L, 11L));
+        assertEquals(Set.of(10L), cache.likedAmong(1L, List.of(10L, 11L, 12L)));
+
+        verify(repository, times(1)).findLikedMemeIds(eq(1L), any());
+        assertEquals(3.0, meterRegistry.get("mematch.likes.liked_cache.requests").tag("result", "hit").counter().count());
+        assertEquals(0.75, meterRegistry.get("mematch.likes.liked_cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    void update_ShouldKeepCachedUserCurrent() {
+        liked(1L, 10L);
+        LikedMemeCache cache = new LikedMemeCache(repository, meterRegistry, 10);
+        cache.hasLiked(1L, 10L);
+
+        cache.update(1L, 11L, true);
+        cache.update(1L, 10L, false);
+
+        assertTrue(cache.hasLiked(1L, 11L));
+        assertFalse(cache.hasLiked(1L, 10L));
+        verify(repository, times(1)).findLikedMemeIds(anyLong(), any());
+    }
+
+    @Test
+    void hasLiked_WhenUserLikesDuringLoad_ShouldNotCacheTheLoad() {
+        LikedMemeCache cache = new LikedMemeCache(repository, meterRegistry, 10);
+        doAnswer(invocation -> {
+            // The like commits while the query runs; the query may or may not have seen it
+            cache.update(1L, 11L, true);
+            LongConsumer consumer = invocation.getArgument(1);
+            consumer.accept(10L);
+            return null;
+        }).doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(1);
+            consumer.accept(10L);
+            consumer.accept(11L);
+            return null;
+        }).when(repository).findLikedMemeIds(eq(1L), any());
+
+        assertTrue(cache.hasLiked(1L, 10L));
+        assertEquals(0, cache.cachedUsers());
+        assertTrue(cache.hasLiked(1L, 11L));
+        assertEquals(1, cache.cachedUsers());
+    }
+
+    @Test
+    void hasLiked_WhenFull_ShouldEvictLeastRecentlyCheckedUser() {
+        liked(1L, 10L);
+        liked(2L, 20L);
+        liked(3L, 30L);
+        LikedMemeCache cache = new LikedMemeCache(repository, meterRegistry, 2);
+
+        cache.hasLiked(1L, 10L);
+        cache.hasLiked(2L, 20L);
+        cache.hasLiked(1L, 10L);
+        cache.hasLiked(3L, 30L);
+        cache.hasLiked(1L, 10L);
+        cache.hasLiked(2L, 20L);
+
+        assertEquals(2, cache.cachedUsers());
+        verify(repository, times(1)).findLikedMemeIds(eq(1L), any());
+        verify(repository, times(2)).findLikedMemeIds(eq(2L), any());
+        assertEquals(2.0, meterRegistry.get("mematch.likes.liked_cache.evictions").counter().count());
+    }
+
+    @Test
+    void concurrentUsers_ShouldAlwaysSeeTheirCommittedLikes() throws Exception {
+        Map<Long, Set<Long>> database = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(1);
+            database.getOrDefault(invocation.<Long>getArgument(0), Set.of()).forEach(consumer::accept);
+            return null;
+        }).when(repository).findLikedMemeIds(anyLong(), any());
+        // Fewer slots than users, so checks keep evicting and reloading
+        LikedMemeCache cache = new LikedMemeCache(repository, meterRegistry, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (long userId = 1; userId <= 16; userId++) {
+                long user = userId;
+                results.add(executor.submit(() -> {
+                    boolean consistent = true;
+                    for (long memeId = 1; memeId <= 200; memeId++) {
+                        // Commit, then the after-commit update, as LikeServiceImpl does
+                        database.computeIfAbsent(user, id -> ConcurrentHashMap.newKeySet()).add(memeId);
+                        cache.update(user, memeId, true);
+                        consistent &= cache.hasLiked(user, memeId);
+                    }
+                    return consistent;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(cache.cachedUsers() <= 4 + 8, "eviction keeps the cache near max-users");
+    }
+}
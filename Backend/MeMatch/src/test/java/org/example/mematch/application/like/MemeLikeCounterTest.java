@@ -0,0 +1,170 @@
+package org.example.mematch.application.like;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.mematch.infrastructure.persistence.jdbc.MemeLikeCountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MemeLikeCounterTest {
+
+    private MemeLikeCountRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private MemeLikeCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(MemeLikeCountRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        counter = new MemeLikeCounter(repository, meterRegistry);
+    }
+
+    private void seed(long... memeIdAndCount) {
+        doAnswer(invocation -> {
+            MemeLikeCountRepository.CountConsumer consumer = invocation.getArgument(0);
+            for (int i = 0; i < memeIdAndCount.length; i += 2) {
+                consumer.accept(memeIdAndCount[i], memeIdAndCount[i + 1]);
+            }
+            return null;
+        }).when(repository).countAll(any());
+    }
+
+    @Test
+    void get_AfterLoad_ShouldAnswerFromMemory() {
+        seed(1L, 3L, 2L, 1L);
+        counter.load();
+
+        counter.add(1L, 1);
+        counter.add(2L, -1);
+
+        assertEquals(4, counter.get(1L));
+        assertEquals(0, counter.get(2L));
+        assertEquals(0, counter.get(99L));
+        verify(repository, never()).countByMeme(anyLong());
+    }
+
+    @Test
+    void get_BeforeLoad_ShouldCountInTheDatabase() {
+        when(repository.countByMeme(7L)).thenReturn(5L);
+
+        assertEquals(5, counter.get(7L));
+    }
+
+    @Test
+    void getAll_AfterLoad_ShouldIncludeMemesWithoutLikes() {
+        seed(1L, 3L);
+        counter.load();
+
+        assertEquals(Map.of(1L, 3L, 2L, 0L), counter.getAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void getAll_BeforeLoad_ShouldUseOneGroupedQuery() {
+        doAnswer(invocation -> {
+            MemeLikeCountRepository.CountConsumer consumer = invocation.getArgument(1);
+            consumer.accept(2L, 4L);
+            return null;
+        }).when(repository).countByMemes(eq(List.of(1L, 2L)), any());
+
+        assertEquals(Map.of(1L, 0L, 2L, 4L), counter.getAll(List.of(1L, 2L)));
+        verify(repository, never()).countByMeme(anyLong());
+    }
+
+    @Test
+    void load_ShouldRecountMemesChangedWhileLoading() {
+        // The like on meme 1 committed before the seed ran, so the seed already has it
+        seed(1L, 3L);
+        doAnswer(invocation -> {
+            MemeLikeCountRepository.CountConsumer consumer = invocation.getArgument(1);
+            consumer.accept(1L, 3L);
+            return null;
+        }).when(repository).countByMemes(eq(List.of(1L)), any());
+        counter.add(1L, 1);
+
+        counter.load();
+
+        assertEquals(3, counter.get(1L));
+    }
+
+    @Test
+    void flush_ShouldWriteOnlyChangedCountersOnce() {
+        seed(1L, 3L, 2L, 1L);
+        counter.load();
+        counter.add(1L, 1);
+        when(repository.saveCounts(anyMap())).thenReturn(1);
+
+        int changed = counter.flush();
+        int again = counter.flush();
+
+        assertEquals(1, changed);
+        assertEquals(0, again);
+        verify(repository, times(1)).saveCounts(Map.of(1L, 4L));
+        assertEquals(1.0, meterRegistry.get("mematch.likes.counts.flushed").counter().count());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldRetryOnTheNextFlush() {
+        counter.load();
+        counter.add(1L, 1);
+        when(repository.saveCounts(anyMap())).thenThrow(new IllegalStateException("db down")).thenReturn(1);
+
+        assertEquals(0, counter.flush());
+        assertEquals(1, counter.flush());
+
+        verify(repository, times(2)).saveCounts(Map.of(1L, 1L));
+    }
+
+    @Test
+    void forget_ShouldDropTheCounterAndItsPendingFlush() {
+        seed(1L, 3L);
+        counter.load();
+        counter.add(1L, 1);
+
+        counter.forget(1L);
+
+        assertEquals(0, counter.get(1L));
+        assertEquals(0, counter.flush());
+        verify(repository, never()).saveCounts(anyMap());
+    }
+
+    @Test
+    void reconcile_ShouldFixDriftAndDropMemesNoLongerLiked() {
+        seed(1L, 3L, 2L, 2L);
+        counter.load();
+        // Likes of meme 1 were removed by a cascade and meme 2 was deleted; meme 3 gained a like unseen
+        seed(1L, 1L, 3L, 1L);
+
+        int corrected = counter.reconcile();
+
+        assertEquals(3, corrected);
+        assertEquals(Map.of(1L, 1L, 2L, 0L, 3L, 1L), counter.getAll(List.of(1L, 2L, 3L)));
+        assertEquals(2, meterRegistry.get("mematch.likes.counts.memes").gauge().value());
+        verify(repository, times(1)).saveCounts(Map.of(2L, 0L));
+        assertEquals(3.0, meterRegistry.get("mematch.likes.counts.corrected").counter().count());
+    }
+
+    @Test
+    void reconcile_ShouldLeaveMemesChangedWhileRecountingForTheNextRun() {
+        seed(1L, 3L);
+        counter.load();
+        doAnswer(invocation -> {
+            // A like commits while the recount runs; the recount may or may not include it
+            counter.add(1L, 1);
+            MemeLikeCountRepository.CountConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1L, 4L);
+            return null;
+        }).when(repository).countAll(any());
+
+        assertEquals(0, counter.reconcile());
+        assertEquals(4, counter.get(1L));
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.feed.ProfileSnapshot;
 import org.example.mematch.domain.entities.User;
 import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
 import org.example.mematch.infrastructure.security.JwtUtil;
@@ -33,6 +34,9 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private ProfileSnapshot profileSnapshot;
+
     @InjectMocks
     private AuthService authService;
 
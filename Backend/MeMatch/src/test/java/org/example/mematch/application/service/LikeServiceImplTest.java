@@ -1,21 +1,27 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.like.LikedMemeCache;
+import org.example.mematch.application.like.MemeLikeCounter;
 import org.example.mematch.domain.entities.Like;
 import org.example.mematch.domain.entities.Meme;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.infrastructure.persistence.jdbc.UserLikeRepository;
 import org.example.mematch.infrastructure.persistence.jpa.LikeRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MemeRepository;
-import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
+import org.example.mematch.infrastructure.persistence.projection.MemeLikeSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,7 +37,13 @@ class LikeServiceImplTest {
     private MemeRepository memeRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private MemeLikeCounter memeLikeCounter;
+
+    @Mock
+    private UserLikeRepository userLikeRepository;
+
+    @Mock
+    private LikedMemeCache likedMemeCache;
 
     @InjectMocks
     private LikeServiceImpl likeService;
@@ -71,83 +83,72 @@ class LikeServiceImplTest {
     }
 
     @Test
-    void createLike_WhenUserAndMemeExistAndNotLiked_ShouldCreateAndReturnLike() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(memeRepository.findById(1L)).thenReturn(Optional.of(testMeme));
-        when(likeRepository.findAll()).thenReturn(Arrays.asList());
-        when(likeRepository.save(any(Like.class))).thenReturn(testLike);
+    void createLike_WhenNotLiked_ShouldInsertAndCountLike() {
+        when(userLikeRepository.insertIfAbsent(1L, 1L)).thenReturn(true);
 
-        Like result = likeService.createLike(1L, 1L);
+        boolean result = likeService.createLike(1L, 1L);
 
-        assertNotNull(result);
-        assertEquals(testUser, result.getUser());
-        assertEquals(testMeme, result.getMeme());
-        verify(userRepository, times(1)).findById(1L);
-        verify(memeRepository, times(1)).findById(1L);
-        verify(likeRepository, times(1)).save(any(Like.class));
+        assertTrue(result);
+        verify(memeLikeCounter, times(1)).add(1L, 1);
+        verify(likedMemeCache, times(1)).update(1L, 1L, true);
+        verifyNoInteractions(likeRepository);
     }
 
     @Test
-    void createLike_WhenUserAlreadyLiked_ShouldThrowException() {
-        // hasUserLikedMeme is called first, which checks likeRepository
-        // The exception is thrown before user/meme are fetched, so no need to stub those
-        when(likeRepository.findAll()).thenReturn(Arrays.asList(testLike));
+    void createLike_WhenUserAlreadyLiked_ShouldChangeNothing() {
+        when(userLikeRepository.insertIfAbsent(1L, 1L)).thenReturn(false);
 
-        assertThrows(IllegalArgumentException.class,
-            () -> likeService.createLike(1L, 1L));
-        verify(likeRepository, never()).save(any(Like.class));
-    }
-
-    @Test
-    void createLike_WhenUserDoesNotExist_ShouldThrowException() {
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        boolean result = likeService.createLike(1L, 1L);
 
-        assertThrows(IllegalArgumentException.class,
-            () -> likeService.createLike(999L, 1L));
-        verify(likeRepository, never()).save(any(Like.class));
+        assertFalse(result);
+        verifyNoInteractions(memeLikeCounter, likedMemeCache);
     }
 
     @Test
-    void createLike_WhenMemeDoesNotExist_ShouldThrowException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(memeRepository.findById(999L)).thenReturn(Optional.empty());
+    void createLike_WhenUserOrMemeDoesNotExist_ShouldThrowException() {
+        when(userLikeRepository.insertIfAbsent(999L, 1L))
+                .thenThrow(new DataIntegrityViolationException("violates foreign key constraint fk_like_user"));
 
         assertThrows(IllegalArgumentException.class,
-            () -> likeService.createLike(1L, 999L));
-        verify(likeRepository, never()).save(any(Like.class));
+            () -> likeService.createLike(999L, 1L));
+        verifyNoInteractions(memeLikeCounter, likedMemeCache);
     }
 
     @Test
-    void unlikeMeme_WhenLikeExists_ShouldDeleteLike() {
-        when(likeRepository.findAll()).thenReturn(Arrays.asList(testLike));
+    void unlikeMeme_WhenLikeExists_ShouldDeleteAndUncountLike() {
+        when(userLikeRepository.deleteIfPresent(1L, 1L)).thenReturn(true);
 
-        likeService.unlikeMeme(1L, 1L);
+        boolean result = likeService.unlikeMeme(1L, 1L);
 
-        verify(likeRepository, times(1)).findAll();
-        verify(likeRepository, times(1)).delete(testLike);
+        assertTrue(result);
+        verify(memeLikeCounter, times(1)).add(1L, -1);
+        verify(likedMemeCache, times(1)).update(1L, 1L, false);
+        verifyNoInteractions(likeRepository);
     }
 
     @Test
-    void unlikeMeme_WhenLikeDoesNotExist_ShouldThrowException() {
-        when(likeRepository.findAll()).thenReturn(Arrays.asList());
+    void unlikeMeme_WhenLikeDoesNotExist_ShouldChangeNothing() {
+        when(userLikeRepository.deleteIfPresent(1L, 1L)).thenReturn(false);
 
-        assertThrows(IllegalArgumentException.class,
-            () -> likeService.unlikeMeme(1L, 1L));
-        verify(likeRepository, never()).delete(any(Like.class));
+        boolean result = likeService.unlikeMeme(1L, 1L);
+
+        assertFalse(result);
+        verifyNoInteractions(memeLikeCounter, likedMemeCache);
     }
 
     @Test
-    void hasUserLikedMeme_WhenLiked_ShouldReturnTrue() {
-        when(likeRepository.findAll()).thenReturn(Arrays.asList(testLike));
+    void hasUserLikedMeme_WhenLiked_ShouldReturnTrueFromCache() {
+        when(likedMemeCache.hasLiked(1L, 1L)).thenReturn(true);
 
         boolean result = likeService.hasUserLikedMeme(1L, 1L);
 
         assertTrue(result);
+        verifyNoInteractions(likeRepository);
     }
 
     @Test
     void hasUserLikedMeme_WhenNotLiked_ShouldReturnFalse() {
-        when(likeRepository.findAll()).thenReturn(Arrays.asList());
+        when(likedMemeCache.hasLiked(1L, 1L)).thenReturn(false);
 
         boolean result = likeService.hasUserLikedMeme(1L, 1L);
 
@@ -155,27 +156,47 @@ class LikeServiceImplTest {
     }
 
     @Test
-    void getLikeCount_ShouldReturnCorrectCount() {
-        Like like1 = Like.create(testUser, testMeme);
-        Like like2 = Like.create(otherUser, testMeme);
-        Like like3 = Like.create(testUser, otherMeme);
-
-        when(likeRepository.findAll()).thenReturn(Arrays.asList(like1, like2, like3));
+    void getLikeCount_ShouldReturnCountFromCounterWithoutQuery() {
+        when(memeLikeCounter.get(1L)).thenReturn(2L);
 
         long count = likeService.getLikeCount(1L);
 
         assertEquals(2, count);
+        verifyNoInteractions(likeRepository);
     }
 
     @Test
     void getLikeCount_WhenNoLikes_ShouldReturnZero() {
-        when(likeRepository.findAll()).thenReturn(Arrays.asList());
+        when(memeLikeCounter.get(1L)).thenReturn(0L);
 
         long count = likeService.getLikeCount(1L);
 
         assertEquals(0, count);
     }
 
+    @Test
+    void getLikeSummaries_ShouldCombineCountsAndLikedFlagsInRequestOrder() {
+        when(memeLikeCounter.getAll(List.of(3L, 1L, 2L))).thenReturn(Map.of(1L, 5L, 2L, 0L, 3L, 1L));
+        when(likedMemeCache.likedAmong(1L, List.of(3L, 1L, 2L))).thenReturn(Set.of(1L));
+
+        List<MemeLikeSummary> result = likeService.getLikeSummaries(1L, Arrays.asList(3L, 1L, null, 2L, 1L));
+
+        assertEquals(List.of(
+                new MemeLikeSummary(3L, 1L, false),
+                new MemeLikeSummary(1L, 5L, true),
+                new MemeLikeSummary(2L, 0L, false)), result);
+        verifyNoInteractions(likeRepository);
+    }
+
+    @Test
+    void getLikeSummaries_WhenTooManyMemes_ShouldThrowException() {
+        List<Long> memeIds = Collections.nCopies(LikeServiceImpl.MAX_BULK_MEMES + 1, 1L);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> likeService.getLikeSummaries(1L, memeIds));
+        verifyNoInteractions(likedMemeCache);
+    }
+
     @Test
     void hasUserLikedUserMemes_WhenLiked_ShouldReturnTrue() {
         // testMeme is owned by testUser (ID 1), testLike is by testUser on testMeme
@@ -215,5 +236,6 @@ class LikeServiceImplTest {
         assertNotNull(result);
         assertEquals(testLike, result);
         verify(likeRepository, times(1)).save(testLike);
+        verify(likedMemeCache, times(1)).update(1L, 1L, true);
     }
 }
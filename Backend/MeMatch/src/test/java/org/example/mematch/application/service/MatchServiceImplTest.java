@@ -1,8 +1,18 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.event.MatchEvent;
+import org.example.mematch.application.event.MatchEventBus;
+import org.example.mematch.application.feed.SwipedUserIndex;
 import org.example.mematch.domain.entities.Match;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.CursorPage;
+import org.example.mematch.domain.valueobjects.PageCursor;
+import org.example.mematch.infrastructure.persistence.jdbc.MatchSummaryRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.SwipeRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.UserMatchCountRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MatchRepository;
+import org.example.mematch.infrastructure.persistence.projection.IncomingLike;
+import org.example.mematch.infrastructure.persistence.projection.MatchSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,8 +20,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,6 +35,21 @@ class MatchServiceImplTest {
     @Mock
     private MatchRepository matchRepository;
 
+    @Mock
+    private SwipedUserIndex swipedUserIndex;
+
+    @Mock
+    private SwipeRepository swipeRepository;
+
+    @Mock
+    private MatchSummaryRepository matchSummaryRepository;
+
+    @Mock
+    private MatchEventBus matchEventBus;
+
+    @Mock
+    private UserMatchCountRepository userMatchCountRepository;
+
     @InjectMocks
     private MatchServiceImpl matchService;
 
@@ -55,8 +82,7 @@ class MatchServiceImplTest {
 
     @Test
     void createMatch_WhenNoExistingMatch_ShouldCreateAndReturnMatch() {
-        when(matchRepository.existsByUser1AndUser2(user1, user2)).thenReturn(false);
-        when(matchRepository.existsByUser1AndUser2(user2, user1)).thenReturn(false);
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.empty());
         when(matchRepository.save(any(Match.class))).thenReturn(match12);
 
         Match result = matchService.createMatch(user1, user2);
@@ -69,7 +95,7 @@ class MatchServiceImplTest {
 
     @Test
     void createMatch_WhenMatchAlreadyExists_ShouldThrowException() {
-        when(matchRepository.existsByUser1AndUser2(user1, user2)).thenReturn(true);
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.of(match12));
 
         assertThrows(IllegalStateException.class,
             () -> matchService.createMatch(user1, user2));
@@ -79,8 +105,7 @@ class MatchServiceImplTest {
 
     @Test
     void createMatch_WhenReverseMatchExists_ShouldThrowException() {
-        when(matchRepository.existsByUser1AndUser2(user1, user2)).thenReturn(false);
-        when(matchRepository.existsByUser1AndUser2(user2, user1)).thenReturn(true);
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.of(Match.create(user2, user1)));
 
         assertThrows(IllegalStateException.class,
             () -> matchService.createMatch(user1, user2));
@@ -90,7 +115,7 @@ class MatchServiceImplTest {
 
     @Test
     void checkMatchExists_WhenMatchExists_ShouldReturnTrue() {
-        when(matchRepository.existsByUser1AndUser2(user1, user2)).thenReturn(true);
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.of(match12));
 
         boolean result = matchService.checkMatchExists(user1, user2);
 
@@ -99,8 +124,7 @@ class MatchServiceImplTest {
 
     @Test
     void checkMatchExists_WhenReverseMatchExists_ShouldReturnTrue() {
-        when(matchRepository.existsByUser1AndUser2(user1, user2)).thenReturn(false);
-        when(matchRepository.existsByUser1AndUser2(user2, user1)).thenReturn(true);
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.of(Match.create(user2, user1)));
 
         boolean result = matchService.checkMatchExists(user1, user2);
 
@@ -109,8 +133,7 @@ class MatchServiceImplTest {
 
     @Test
     void checkMatchExists_WhenNoMatchExists_ShouldReturnFalse() {
-        when(matchRepository.existsByUser1AndUser2(user1, user2)).thenReturn(false);
-        when(matchRepository.existsByUser1AndUser2(user2, user1)).thenReturn(false);
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.empty());
 
         boolean result = matchService.checkMatchExists(user1, user2);
 
@@ -124,7 +147,7 @@ class MatchServiceImplTest {
         match13.markAsMatched();
         Match match23 = Match.create(user2, user3);
         match23.markAsMatched();
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(match12, match13, match23));
+        when(matchRepository.findMatchedByUser(1L)).thenReturn(Arrays.asList(match12, match13));
 
         List<Match> result = matchService.getMatchesForUser(user1);
 
@@ -132,13 +155,14 @@ class MatchServiceImplTest {
         assertTrue(result.contains(match12));
         assertTrue(result.contains(match13));
         assertFalse(result.contains(match23));
+        verify(matchRepository, never()).findAll();
     }
 
     @Test
     void getMatchesForUser_WhenUserIsUser2_ShouldReturnMatches() {
         // Mark match as matched since getMatchesForUser only returns matched=true
         match12.markAsMatched();
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(match12, match13));
+        when(matchRepository.findMatchedByUser(2L)).thenReturn(Arrays.asList(match12));
 
         List<Match> result = matchService.getMatchesForUser(user2);
 
@@ -148,7 +172,7 @@ class MatchServiceImplTest {
 
     @Test
     void getMatchesForUser_WhenNoMatches_ShouldReturnEmptyList() {
-        when(matchRepository.findAll()).thenReturn(Arrays.asList());
+        when(matchRepository.findMatchedByUser(1L)).thenReturn(Arrays.asList());
 
         List<Match> result = matchService.getMatchesForUser(user1);
 
@@ -157,8 +181,8 @@ class MatchServiceImplTest {
 
     @Test
     void likeUser_WhenNoExistingMatch_ShouldCreateOneWayLike() {
-        when(matchRepository.findAll()).thenReturn(Arrays.asList());
-        when(matchRepository.save(any(Match.class))).thenReturn(match12);
+        when(swipeRepository.swipe(1L, 2L)).thenReturn(new SwipeRepository.SwipeResult(5L, 1L, 2L, false, SwipeRepository.Outcome.LIKED));
+        when(matchRepository.findById(5L)).thenReturn(Optional.of(match12));
 
         Match result = matchService.likeUser(user1, user2);
 
@@ -166,51 +190,62 @@ class MatchServiceImplTest {
         assertFalse(result.isMatched());
         assertEquals(user1, result.getUser1());
         assertEquals(user2, result.getUser2());
-        verify(matchRepository, times(1)).save(any(Match.class));
+        verify(swipeRepository, times(1)).swipe(1L, 2L);
+        verify(matchRepository, never()).save(any(Match.class));
     }
 
     @Test
-    void likeUser_WhenReverseLikeExists_ShouldMarkAsMatched() {
+    void likeUser_WhenReverseLikeExists_ShouldReturnMatchAndRecordIt() {
         Match reverseMatch = Match.create(user2, user1);
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(reverseMatch));
-        when(matchRepository.save(any(Match.class))).thenReturn(reverseMatch);
-        doNothing().when(matchRepository).flush();
+        reverseMatch.markAsMatched();
+        when(swipeRepository.swipe(1L, 2L)).thenReturn(new SwipeRepository.SwipeResult(5L, 2L, 1L, true, SwipeRepository.Outcome.MATCHED));
+        when(matchRepository.findById(5L)).thenReturn(Optional.of(reverseMatch));
 
         Match result = matchService.likeUser(user1, user2);
 
         assertNotNull(result);
         assertTrue(result.isMatched());
-        verify(matchRepository, times(1)).save(reverseMatch);
-        verify(matchRepository, times(1)).flush();
+        verify(swipedUserIndex, times(1)).recordSwipe(2L, 1L, true);
+        verify(matchEventBus, times(1)).publish(argThat(event ->
+                event instanceof MatchEvent.MatchCreated m && m.user1Id() == 2L && m.user2Id() == 1L));
     }
 
     @Test
     void likeUser_WhenSameDirectionLikeExists_ShouldReturnExisting() {
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(match12));
+        when(swipeRepository.swipe(1L, 2L)).thenReturn(new SwipeRepository.SwipeResult(5L, 1L, 2L, false, SwipeRepository.Outcome.UNCHANGED));
+        when(matchRepository.findById(5L)).thenReturn(Optional.of(match12));
 
         Match result = matchService.likeUser(user1, user2);
 
         assertNotNull(result);
         assertEquals(match12, result);
-        verify(matchRepository, never()).save(any(Match.class));
+        verify(swipedUserIndex, never()).recordSwipe(anyLong(), anyLong(), anyBoolean());
+        verifyNoInteractions(matchEventBus);
     }
 
     @Test
     void likeUser_WhenAlreadyMatched_ShouldReturnExisting() {
         match12.markAsMatched();
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(match12));
+        when(swipeRepository.swipe(1L, 2L)).thenReturn(new SwipeRepository.SwipeResult(5L, 1L, 2L, true, SwipeRepository.Outcome.UNCHANGED));
+        when(matchRepository.findById(5L)).thenReturn(Optional.of(match12));
 
         Match result = matchService.likeUser(user1, user2);
 
         assertNotNull(result);
         assertTrue(result.isMatched());
         assertEquals(match12, result);
-        verify(matchRepository, never()).save(any(Match.class));
+        verify(swipedUserIndex, never()).recordSwipe(anyLong(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void likeUser_WhenLikingSelf_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> matchService.likeUser(user1, user1));
+        verifyNoInteractions(swipeRepository);
     }
 
     @Test
     void hasUserLikedUser_WhenLiked_ShouldReturnTrue() {
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(match12));
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.of(match12));
 
         boolean result = matchService.hasUserLikedUser(user1, user2);
 
@@ -219,7 +254,7 @@ class MatchServiceImplTest {
 
     @Test
     void hasUserLikedUser_WhenNotLiked_ShouldReturnFalse() {
-        when(matchRepository.findAll()).thenReturn(Arrays.asList());
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.empty());
 
         boolean result = matchService.hasUserLikedUser(user1, user2);
 
@@ -229,7 +264,7 @@ class MatchServiceImplTest {
     @Test
     void areUsersMatched_WhenMatched_ShouldReturnTrue() {
         match12.markAsMatched();
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(match12));
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.of(match12));
 
         boolean result = matchService.areUsersMatched(user1, user2);
 
@@ -238,10 +273,169 @@ class MatchServiceImplTest {
 
     @Test
     void areUsersMatched_WhenNotMatched_ShouldReturnFalse() {
-        when(matchRepository.findAll()).thenReturn(Arrays.asList(match12));
+        when(matchRepository.findByPair(1L, 2L)).thenReturn(Optional.of(match12));
 
         boolean result = matchService.areUsersMatched(user1, user2);
 
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void likeUser_WhenNoExistingMatch_ShouldRecordSwipeInIndex() {
+        when(swipeRepository.swipe(1L, 2L)).thenReturn(new SwipeRepository.SwipeResult(5L, 1L, 2L, false, SwipeRepository.Outcome.LIKED));
+        when(matchRepository.findById(5L)).thenReturn(Optional.of(match12));
+
+        matchService.likeUser(user1, user2);
+
+        verify(swipedUserIndex, times(1)).recordSwipe(1L, 2L, false);
+        verify(matchEventBus, times(1)).publish(any(MatchEvent.OneWayLikeCreated.class));
+        verify(matchRepository, never()).findAll();
+    }
+
+    @Test
+    void likeUsers_ShouldSwipeDistinctTargetsInOneBatchAndRecordChanges() {
+        when(swipeRepository.swipeAll(1L, new long[]{2L, 3L})).thenReturn(List.of(
+                new SwipeRepository.SwipeResult(7L, 2L, 1L, true, SwipeRepository.Outcome.MATCHED),
+                new SwipeRepository.SwipeResult(8L, 1L, 3L, false, SwipeRepository.Outcome.UNCHANGED)));
+
+        List<SwipeRepository.SwipeResult> results = matchService.likeUsers(1L, Arrays.asList(2L, 1L, 3L, 2L, null));
+
+        assertEquals(2, results.size());
+        verify(swipedUserIndex, times(1)).recordSwipe(2L, 1L, true);
+        verify(swipedUserIndex, never()).recordSwipe(1L, 3L, false);
+        verify(matchRepository, never()).findAll();
+    }
+
+    @Test
+    void likeUsers_WhenOnlySelf_ShouldNotTouchDatabase() {
+        List<SwipeRepository.SwipeResult> results = matchService.likeUsers(1L, List.of(1L));
+
+        assertTrue(results.isEmpty());
+        verifyNoInteractions(swipeRepository);
+    }
+
+    @Test
+    void likeUsers_WhenBatchTooLarge_ShouldThrowException() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(2, MatchServiceImpl.MAX_BATCH_SWIPES + 2).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> matchService.likeUsers(1L, ids));
+        verifyNoInteractions(swipeRepository);
+    }
+
+    @Test
+    void hasUserLikedUser_WhenIndexIsReady_ShouldNotQueryMatches() {
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        when(swipedUserIndex.hasSwiped(1L, 2L)).thenReturn(false);
+        when(swipedUserIndex.hasSwiped(2L, 1L)).thenReturn(true);
+
+        assertTrue(matchService.hasUserLikedUser(user1, user2));
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    void areUsersMatched_WhenIndexIsReady_ShouldNotQueryMatches() {
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        when(swipedUserIndex.areMatched(1L, 2L)).thenReturn(true);
+
+        assertTrue(matchService.areUsersMatched(user1, user2));
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    void getMatchesForUser_WhenIndexHasNoMatches_ShouldNotQueryMatches() {
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        when(swipedUserIndex.hasMatches(1L)).thenReturn(false);
+
+        assertTrue(matchService.getMatchesForUser(user1).isEmpty());
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    void deleteMatch_WhenMatchExists_ShouldDeleteAndForgetSwipe() {
+        match12.markAsMatched();
+        when(matchRepository.findById(5L)).thenReturn(Optional.of(match12));
+
+        matchService.deleteMatch(5L);
+
+        verify(matchRepository, times(1)).delete(match12);
+        verify(swipedUserIndex, times(1)).removeSwipe(1L, 2L, true);
+    }
+
+    @Test
+    void deleteMatch_WhenMatchDoesNotExist_ShouldThrowException() {
+        when(matchRepository.findById(5L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> matchService.deleteMatch(5L));
+        verify(matchRepository, never()).delete(any(Match.class));
+    }
+
+    @Test
+    void getMatchPage_WhenMoreRowsThanPage_ShouldReturnCursorOfLastRow() {
+        LocalDateTime newer = LocalDateTime.of(2024, 5, 2, 10, 0, 0, 123_456_000);
+        LocalDateTime older = LocalDateTime.of(2024, 5, 1, 9, 30);
+        MatchSummary first = new MatchSummary(9L, 2L, "user2", "a.png", newer);
+        MatchSummary second = new MatchSummary(7L, 3L, "user3", "b.png", older);
+        when(matchSummaryRepository.findMatchPage(1L, null, 0, 2))
+                .thenReturn(List.of(first, second));
+
+        CursorPage<MatchSummary> page = matchService.getMatchPage(1L, 1, null);
+
+        assertEquals(List.of(first), page.items());
+        assertTrue(page.hasNext());
+
+        when(matchSummaryRepository.findMatchPage(1L, newer, 9L, 2)).thenReturn(List.of(second));
+
+        CursorPage<MatchSummary> next = matchService.getMatchPage(1L, 1, page.nextCursor());
+
+        assertEquals(List.of(second), next.items());
+        assertFalse(next.hasNext());
+    }
+
+    @Test
+    void getMatchPage_ShouldClampPageSize() {
+        when(matchSummaryRepository.findMatchPage(1L, null, 0, MatchServiceImpl.MAX_MATCH_PAGE_SIZE + 1))
+                .thenReturn(List.of());
+
+        CursorPage<MatchSummary> page = matchService.getMatchPage(1L, 1000, null);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getMatchPage_WhenCursorIsMalformed_ShouldThrowException() {
+        String wrongShape = PageCursor.of(1L).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> matchService.getMatchPage(1L, 20, wrongShape));
+        verifyNoInteractions(matchSummaryRepository);
+    }
+
+    @Test
+    void getMatchCounts_ShouldReadStoredCounters() {
+        UserMatchCountRepository.Counts counts = new UserMatchCountRepository.Counts(3, 5, 8);
+        when(userMatchCountRepository.findByUser(1L)).thenReturn(counts);
+
+        assertEquals(counts, matchService.getMatchCounts(1L));
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    void getIncomingLikePage_ShouldPageBackwardsByMatchId() {
+        IncomingLike newest = new IncomingLike(30L, 4L, "user4", null);
+        IncomingLike older = new IncomingLike(20L, 3L, "user3", null);
+        IncomingLike oldest = new IncomingLike(10L, 2L, "user2", null);
+        when(matchSummaryRepository.findIncomingLikePage(1L, null, 3)).thenReturn(List.of(newest, older, oldest));
+
+        CursorPage<IncomingLike> page = matchService.getIncomingLikePage(1L, 2, null);
+
+        assertEquals(List.of(newest, older), page.items());
+        assertEquals(PageCursor.of(20L).encode(), page.nextCursor());
+
+        when(matchSummaryRepository.findIncomingLikePage(1L, 20L, 3)).thenReturn(List.of(oldest));
+
+        CursorPage<IncomingLike> next = matchService.getIncomingLikePage(1L, 2, page.nextCursor());
+
+        assertEquals(List.of(oldest), next.items());
+        assertFalse(next.hasNext());
+    }
+}
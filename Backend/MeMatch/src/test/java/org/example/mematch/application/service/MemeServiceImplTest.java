@@ -1,5 +1,6 @@
 package org.example.mematch.application.service;
 
+import org.example.mematch.application.like.MemeLikeCounter;
 import org.example.mematch.domain.entities.Meme;
 import org.example.mematch.domain.entities.User;
 import org.example.mematch.infrastructure.persistence.jpa.MemeRepository;
@@ -24,6 +25,9 @@ class MemeServiceImplTest {
     @Mock
     private MemeRepository memeRepository;
 
+    @Mock
+    private MemeLikeCounter memeLikeCounter;
+
     @InjectMocks
     private MemeServiceImpl memeService;
 
@@ -89,6 +93,7 @@ class MemeServiceImplTest {
 
         verify(memeRepository, times(1)).findById(memeId);
         verify(memeRepository, times(1)).delete(meme);
+        verify(memeLikeCounter, times(1)).forget(memeId);
     }
 
 
@@ -1,16 +1,30 @@
 package org.example.mematch.application.service;
 
-import org.example.mematch.domain.entities.Match;
+import org.example.mematch.application.feed.FeedMetrics;
+import org.example.mematch.application.feed.FeedQuery;
+import org.example.mematch.application.feed.FeedQueueCache;
+import org.example.mematch.application.feed.FeedScanStats;
+import org.example.mematch.application.feed.ProfileSnapshot;
+import org.example.mematch.application.feed.SwipedUserIndex;
+import org.example.mematch.application.feed.TopKSelector;
+import org.example.mematch.application.like.MemeLikeCounter;
 import org.example.mematch.domain.entities.Meme;
 import org.example.mematch.domain.entities.User;
+import org.example.mematch.domain.valueobjects.CursorPage;
+import org.example.mematch.domain.valueobjects.HumourTag;
+import org.example.mematch.domain.valueobjects.PageCursor;
+import org.example.mematch.infrastructure.persistence.jdbc.FeedCandidateRepository;
+import org.example.mematch.infrastructure.persistence.jdbc.UserSimilarityRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MatchRepository;
 import org.example.mematch.infrastructure.persistence.jpa.MemeRepository;
 import org.example.mematch.infrastructure.persistence.jpa.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -19,6 +33,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +48,29 @@ class UserServiceImplTest {
     @Mock
     private MatchRepository matchRepository;
 
+    @Mock
+    private ProfileSnapshot profileSnapshot;
+
+    @Mock
+    private SwipedUserIndex swipedUserIndex;
+
+    @Mock
+    private FeedQueueCache feedQueueCache;
+
+    @Mock
+    private FeedCandidateRepository feedCandidateRepository;
+
+    @Mock
+    private UserSimilarityRepository userSimilarityRepository;
+
+    @Mock
+    private MemeLikeCounter memeLikeCounter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private FeedMetrics feedMetrics = new FeedMetrics(meterRegistry);
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -43,6 +81,15 @@ class UserServiceImplTest {
     void setUp() {
         testUser = User.create("test@example.com", "testuser", "hashedpassword");
         testMeme = Meme.create(testUser, "https://example.com/meme.jpg", "Funny meme");
+        
+        // Set ID using reflection for testing
+        try {
+            java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(testUser, 1L);
+        } catch (Exception e) {
+            // If reflection fails, feed tests will fail on the missing id
+        }
     }
 
     @Test
@@ -140,6 +187,16 @@ class UserServiceImplTest {
             () -> userService.removeMeme(1L, 999L));
     }
 
+    @Test
+    void removeMeme_WhenOwnMeme_ShouldDeleteItAndForgetItsLikeCount() {
+        when(memeRepository.findById(5L)).thenReturn(Optional.of(testMeme));
+
+        userService.removeMeme(1L, 5L);
+
+        verify(memeRepository, times(1)).delete(testMeme);
+        verify(memeLikeCounter, times(1)).forget(5L);
+    }
+
     @Test
     void searchUsersByUsername_WhenQueryMatches_ShouldReturnMatchingUsers() {
         User user1 = User.create("user1@example.com", "john", "hash1");
@@ -214,4 +271,268 @@ class UserServiceImplTest {
         assertThrows(IllegalArgumentException.class,
             () -> userService.updatePreferences(999L, "Female", 20, 30, null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUsersForFeed_WithoutQueue_ShouldRankQueueCapacityAndApplyPreferences() throws Exception {
+        User candidate = User.create("c@example.com", "candidate", "hash");
+        candidate.updateProfile(25, "female", "Iasi", "Romania", null);
+        User outOfRange = User.create("o@example.com", "older", "hash");
+        outOfRange.updateProfile(40, "Female", "Iasi", "Romania", null);
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(candidate, 10L);
+        idField.set(outOfRange, 11L);
+        testUser.updatePreferences("Female", 20, 30, null);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(feedQueueCache.capacity()).thenReturn(200);
+        when(userRepository.findFeedCandidates(testUser, null, 200))
+                .thenReturn(Arrays.asList(candidate, outOfRange));
+        when(matchRepository.findSwipedUserIds(1L)).thenReturn(new long[0]);
+
+        List<User> result = userService.getUsersForFeed(1L);
+
+        assertEquals(List.of(candidate), result);
+        verify(feedQueueCache).prime(eq(1L), any(), eq(2), eq(true));
+        verify(userRepository, never()).findAllById(any());
+        verify(userRepository, never()).findAll();
+        verify(matchRepository, never()).findAll();
+    }
+
+    @Test
+    void getUsersForFeed_WithQueue_ShouldPopWithoutRankingAndSkipNewSwipes() throws Exception {
+        User candidate = User.create("c@example.com", "candidate", "hash");
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(candidate, 10L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(feedQueueCache.poll(1L, UserServiceImpl.FEED_PAGE_SIZE)).thenReturn(new long[]{11L, 10L});
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        when(swipedUserIndex.swipedBy(1L)).thenReturn(id -> id == 11L);
+        when(userRepository.findAllById(List.of(10L))).thenReturn(List.of(candidate));
+
+        List<User> result = userService.getUsersForFeed(1L);
+
+        assertEquals(List.of(candidate), result);
+        verify(profileSnapshot, never()).selectTopK(any(), any(), any(), any());
+        verify(userRepository, never()).findFeedCandidates(any(), any(), anyInt());
+        verify(userRepository, never()).forEachFeedCandidate(any(), any());
+    }
+
+    @Test
+    void updatePreferences_ShouldInvalidateFeedQueue() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.updatePreferences(1L, "Female", 20, 30, null);
+
+        verify(feedQueueCache, times(1)).invalidate(1L);
+        verify(feedCandidateRepository, times(1)).deleteByUser(1L);
+    }
+
+    @Test
+    void getUsersForFeed_BeforeSnapshotLoads_ShouldServePrecomputedCandidates() throws Exception {
+        User candidate = User.create("c@example.com", "candidate", "hash");
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(candidate, 10L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(feedQueueCache.capacity()).thenReturn(200);
+        when(feedCandidateRepository.findByUser(1L, 200)).thenReturn(List.<long[]>of(new long[]{10L, 3L}));
+        when(matchRepository.findSwipedUserIds(1L)).thenReturn(new long[0]);
+        when(userRepository.findAllById(List.of(10L))).thenReturn(List.of(candidate));
+
+        List<User> result = userService.getUsersForFeed(1L);
+
+        assertEquals(List.of(candidate), result);
+        verify(userRepository, never()).findFeedCandidates(any(), any(), anyInt());
+        verify(userRepository, never()).forEachFeedCandidate(any(), any());
+    }
+
+    @Test
+    void getSimilarUsers_ShouldReturnStoredOrderWithoutSwipedUsers() throws Exception {
+        User first = User.create("a@example.com", "first", "hash");
+        User second = User.create("b@example.com", "second", "hash");
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(first, 10L);
+        idField.set(second, 30L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        when(swipedUserIndex.swipedBy(1L)).thenReturn(id -> id == 20L);
+        when(userSimilarityRepository.findByUser(1L, UserServiceImpl.MAX_SIMILAR_USERS)).thenReturn(List.of(
+                new UserSimilarityRepository.Similarity(1L, 0, 30L, 5, 0.9),
+                new UserSimilarityRepository.Similarity(1L, 1, 20L, 4, 0.8),
+                new UserSimilarityRepository.Similarity(1L, 2, 10L, 2, 0.5)));
+        when(userRepository.findAllById(List.of(30L, 10L))).thenReturn(List.of(first, second));
+
+        List<User> result = userService.getSimilarUsers(1L, 20);
+
+        assertEquals(List.of(second, first), result);
+    }
+
+    @Test
+    void getSimilarUsers_WhenUserDoesNotExist_ShouldThrowException() {
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> userService.getSimilarUsers(999L, 20));
+        verify(userSimilarityRepository, never()).findByUser(anyLong(), anyInt());
+    }
+
+    @Test
+    void getUsersForFeed_WhenUserDoesNotExist_ShouldThrowException() {
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> userService.getUsersForFeed(999L));
+    }
+
+    @Test
+    void getFeedPage_WhenMoreCandidatesThanPageSize_ShouldReturnCursorForNextPage() throws Exception {
+        User first = User.create("a@example.com", "first", "hash");
+        User second = User.create("b@example.com", "second", "hash");
+        User third = User.create("c@example.com", "third", "hash");
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(first, 10L);
+        idField.set(second, 11L);
+        idField.set(third, 12L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.findFeedCandidates(testUser, null, 3)).thenReturn(Arrays.asList(first, second, third));
+        when(userRepository.findFeedCandidates(testUser, 11L, 3)).thenReturn(Arrays.asList(third));
+
+        CursorPage<User> page1 = userService.getFeedPage(1L, 2, null);
+        CursorPage<User> page2 = userService.getFeedPage(1L, 2, page1.nextCursor());
+
+        assertEquals(List.of(first, second), page1.items());
+        assertTrue(page1.hasNext());
+        assertEquals(List.of(third), page2.items());
+        assertNull(page2.nextCursor());
+    }
+
+    @Test
+    void getFeedPage_WithMalformedCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> userService.getFeedPage(1L, 20, "not-a-cursor"));
+    }
+
+    @Test
+    void getFeedPage_WithHumourPreferences_ShouldRankByCompatibility() throws Exception {
+        User oneTag = User.create("a@example.com", "oneTag", "hash");
+        User twoTags = User.create("b@example.com", "twoTags", "hash");
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(oneTag, 10L);
+        idField.set(twoTags, 11L);
+        testUser.updatePreferences(null, null, null, List.of(HumourTag.PUNS, HumourTag.IRONY));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        doAnswer(invocation -> {
+            UserRepository.FeedCandidateConsumer consumer = invocation.getArgument(1);
+            consumer.accept(10L, HumourTag.PUNS.bit() | HumourTag.SARCASM.bit(), null, null);
+            consumer.accept(11L, HumourTag.PUNS.bit() | HumourTag.IRONY.bit(), null, null);
+            consumer.accept(12L, HumourTag.DARK_HUMOUR.bit(), null, null);
+            return null;
+        }).when(userRepository).forEachFeedCandidate(eq(testUser), any());
+        when(userRepository.findAllById(List.of(11L, 10L))).thenReturn(Arrays.asList(oneTag, twoTags));
+
+        CursorPage<User> page = userService.getFeedPage(1L, 2, null);
+
+        assertEquals(List.of(twoTags, oneTag), page.items());
+        assertTrue(page.hasNext());
+        verify(userRepository, never()).findFeedCandidates(any(), any(), anyInt());
+    }
+
+    @Test
+    void getFeedPage_BeforeSnapshotIsReady_ShouldScoreLocalityLikeTheSnapshot() throws Exception {
+        User sameCity = User.create("a@example.com", "sameCity", "hash");
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(sameCity, 12L);
+        testUser.updateProfile(30, "male", "Iasi", "Romania", null);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        doAnswer(invocation -> {
+            UserRepository.FeedCandidateConsumer consumer = invocation.getArgument(1);
+            consumer.accept(10L, 0, null, null);
+            consumer.accept(11L, 0, "romania", "Cluj");
+            consumer.accept(12L, 0, " Romania", "iasi ");
+            return null;
+        }).when(userRepository).forEachFeedCandidate(eq(testUser), any());
+        when(userRepository.findAllById(List.of(12L))).thenReturn(List.of(sameCity));
+
+        CursorPage<User> page = userService.getFeedPage(1L, 1, null);
+
+        // Without humour preferences the keyset shortcut would ignore the location bonus
+        assertEquals(List.of(sameCity), page.items());
+        int sameCityScore = FeedQuery.of(testUser, null).score(0, "Romania", "Iasi");
+        assertTrue(sameCityScore > FeedQuery.of(testUser, null).score(0, "Romania", "Cluj"));
+        assertEquals(PageCursor.of(sameCityScore, 12L).encode(), page.nextCursor());
+        verify(userRepository, never()).findFeedCandidates(any(), any(), anyInt());
+    }
+
+    @Test
+    void getFeedPage_WhenSnapshotIsReady_ShouldRankFromSnapshotAndExcludeSwipedUsers() throws Exception {
+        User candidate = User.create("a@example.com", "candidate", "hash");
+        java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(candidate, 10L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(profileSnapshot.isReady()).thenReturn(true);
+        when(matchRepository.findSwipedUserIds(1L)).thenReturn(new long[]{11L});
+        doAnswer(invocation -> {
+            java.util.function.LongPredicate excluded = invocation.getArgument(1);
+            TopKSelector top = invocation.getArgument(2);
+            for (long id : new long[]{10L, 11L}) {
+                if (!excluded.test(id)) {
+                    top.offer(id, 0);
+                }
+            }
+            return null;
+        }).when(profileSnapshot).selectTopK(any(FeedQuery.class), any(), any(TopKSelector.class), any(FeedScanStats.class));
+        when(userRepository.findAllById(List.of(10L))).thenReturn(List.of(candidate));
+
+        CursorPage<User> page = userService.getFeedPage(1L, 5, null);
+
+        assertEquals(List.of(candidate), page.items());
+        assertFalse(page.hasNext());
+        verify(userRepository, never()).findFeedCandidates(any(), any(), anyInt());
+        verify(userRepository, never()).forEachFeedCandidate(any(), any());
+    }
+
+    @Test
+    void getFeedPage_ShouldRecordStageTimingsAndResultSize() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.findFeedCandidates(testUser, null, 21)).thenReturn(List.of());
+
+        userService.getFeedPage(1L, 20, null);
+
+        assertEquals(1, meterRegistry.get("mematch.feed.stage").tag("stage", "load_user").timer().count());
+        assertEquals(1, meterRegistry.get("mematch.feed.stage").tag("stage", "rank").timer().count());
+        assertEquals(1, meterRegistry.get("mematch.feed.result.size").summary().count());
+        assertEquals(0.0, meterRegistry.get("mematch.feed.candidates")
+                .tags("filter", "page_age", "direction", "out").counter().count());
+    }
+
+    @Test
+    void updateProfileDetails_ShouldRefreshProfileSnapshot() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.updateProfileDetails(1L, 25, "Male", "New York", "USA", null);
+
+        verify(profileSnapshot, times(1)).upsert(testUser);
+        verify(feedQueueCache, times(1)).invalidate(1L);
+    }
+
+    @Test
+    void getFeedPage_WhenSwipedIndexIsReady_ShouldNotQueryMatches() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(profileSnapshot.isReady()).thenReturn(true);
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        when(swipedUserIndex.swipedBy(1L)).thenReturn(id -> true);
+
+        CursorPage<User> page = userService.getFeedPage(1L, 5, null);
+
+        assertTrue(page.items().isEmpty());
+        verify(matchRepository, never()).findSwipedUserIds(any());
+    }
+}
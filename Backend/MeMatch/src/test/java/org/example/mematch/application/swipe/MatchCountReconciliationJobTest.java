@@ -0,0 +1,79 @@
+package org.example.mematch.application.swipe;
+
+import org.example.mematch.infrastructure.persistence.jdbc.UserMatchCountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class MatchCountReconciliationJobTest {
+
+    private UserMatchCountRepository repository;
+    private final List<long[]> ranges = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserMatchCountRepository.class);
+        when(repository.reconcileRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            ranges.add(new long[]{invocation.getArgument(0), invocation.getArgument(1)});
+            return 1;
+        });
+    }
+
+    @Test
+    void run_ShouldCoverTheWholeIdSpaceWithoutGapsOrOverlaps() {
+        when(repository.maxUserId()).thenReturn(2500L);
+        MatchCountReconciliationJob job = new MatchCountReconciliationJob(repository, 1000, 4);
+
+        MatchCountReconciliationJob.Report report = job.run();
+
+        assertEquals(3, report.ranges());
+        assertEquals(3, report.corrected());
+        List<long[]> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(r -> r[0]));
+        assertEquals(Long.MIN_VALUE, sorted.get(0)[0]);
+        assertEquals(999L, sorted.get(0)[1]);
+        assertArrayEquals(new long[]{1000L, 1999L}, sorted.get(1));
+        assertEquals(2000L, sorted.get(2)[0]);
+        assertEquals(Long.MAX_VALUE, sorted.get(2)[1]);
+    }
+
+    @Test
+    void run_WhenNoUsers_ShouldReconcileOneOpenRange() {
+        when(repository.maxUserId()).thenReturn(0L);
+        MatchCountReconciliationJob job = new MatchCountReconciliationJob(repository, 1000, 2);
+
+        MatchCountReconciliationJob.Report report = job.run();
+
+        assertEquals(1, report.ranges());
+        verify(repository, times(1)).reconcileRange(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    void run_WhenAlreadyRunning_ShouldThrowException() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.maxUserId()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return 0L;
+        });
+        MatchCountReconciliationJob job = new MatchCountReconciliationJob(repository, 1000, 1);
+        Thread first = new Thread(job::run);
+        first.start();
+        started.await();
+
+        assertThrows(IllegalStateException.class, job::run);
+
+        release.countDown();
+        first.join();
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.mematch.application.swipe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.mematch.application.feed.SwipedUserIndex;
+import org.example.mematch.infrastructure.persistence.jdbc.StaleLikeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class StaleLikeCleanupJobTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    private StaleLikeRepository repository;
+    private SwipedUserIndex swipedUserIndex;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StaleLikeRepository.class);
+        swipedUserIndex = mock(SwipedUserIndex.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void run_ShouldDeleteBatchesInKeysetOrderUntilNothingIsLeft() {
+        when(repository.deleteBatch(any(), isNull(), eq(0L), eq(2), eq(false)))
+                .thenReturn(new StaleLikeRepository.Batch(List.of(new long[]{5L, 1L, 2L}, new long[]{6L, 3L, 4L}), T1, 6L));
+        when(repository.deleteBatch(any(), eq(T1), eq(6L), eq(2), eq(false)))
+                .thenReturn(new StaleLikeRepository.Batch(List.of(new long[]{9L, 1L, 7L}), T2, 9L));
+        when(repository.deleteBatch(any(), eq(T2), eq(9L), eq(2), eq(false)))
+                .thenReturn(new StaleLikeRepository.Batch(List.of(), null, 0));
+        StaleLikeCleanupJob job = new StaleLikeCleanupJob(repository, swipedUserIndex, meterRegistry, 90, 2, 0, false);
+
+        StaleLikeCleanupJob.Report report = job.run();
+
+        assertEquals(3, report.removed());
+        assertEquals(2, report.batches());
+        verify(swipedUserIndex, times(1)).removeSwipe(1L, 2L, false);
+        assertEquals(3.0, meterRegistry.get("mematch.likes.cleanup.removed").counter().count());
+        assertEquals(1, meterRegistry.get("mematch.likes.cleanup.duration").timer().count());
+    }
+
+    @Test
+    void run_ShouldOnlyRemoveLikesOlderThanTheRetentionPeriod() {
+        when(repository.deleteBatch(any(), any(), anyLong(), anyInt(), anyBoolean()))
+                .thenReturn(new StaleLikeRepository.Batch(List.of(), null, 0));
+        StaleLikeCleanupJob job = new StaleLikeCleanupJob(repository, swipedUserIndex, meterRegistry, 30, 100, 0, true);
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        job.run();
+
+        verify(repository).deleteBatch(argThat(cutoff -> !cutoff.isBefore(before)
+                && !cutoff.isAfter(LocalDateTime.now().minusDays(30))), isNull(), eq(0L), eq(100), eq(true));
+        verifyNoInteractions(swipedUserIndex);
+    }
+
+    @Test
+    void run_WhenBatchWasSkippedEntirely_ShouldMoveOnPastIt() {
+        // Every row of the first batch was swiped on concurrently: nothing removed, but the keyset advances
+        when(repository.deleteBatch(any(), isNull(), eq(0L), anyInt(), anyBoolean()))
+                .thenReturn(new StaleLikeRepository.Batch(List.of(), T1, 6L));
+        when(repository.deleteBatch(any(), eq(T1), eq(6L), anyInt(), anyBoolean()))
+                .thenReturn(new StaleLikeRepository.Batch(List.of(), null, 0));
+        StaleLikeCleanupJob job = new StaleLikeCleanupJob(repository, swipedUserIndex, meterRegistry, 90, 2, 0, false);
+
+        StaleLikeCleanupJob.Report report = job.run();
+
+        assertEquals(0, report.removed());
+        assertEquals(1, report.batches());
+    }
+
+    @Test
+    void start_ShouldRunInTheBackgroundAndRejectASecondRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.deleteBatch(any(), isNull(), eq(0L), anyInt(), anyBoolean())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new StaleLikeRepository.Batch(List.of(), null, 0);
+        });
+        StaleLikeCleanupJob job = new StaleLikeCleanupJob(repository, swipedUserIndex, meterRegistry, 90, 2, 0, false);
+
+        job.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, job::start);
+        assertThrows(IllegalStateException.class, job::run);
+        release.countDown();
+
+        // Once the background run has finished, a new run is accepted
+        StaleLikeCleanupJob.Report report = null;
+        while (report == null) {
+            try {
+                report = job.run();
+            } catch (IllegalStateException e) {
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(0, report.removed());
+    }
+}
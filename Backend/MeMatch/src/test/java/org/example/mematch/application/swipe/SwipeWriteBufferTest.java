@@ -0,0 +1,187 @@
+package org.example.mematch.application.swipe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.mematch.application.event.MatchEvent;
+import org.example.mematch.application.event.MatchEventBus;
+import org.example.mematch.application.feed.SwipedUserIndex;
+import org.example.mematch.infrastructure.persistence.jdbc.SwipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SwipeWriteBufferTest {
+
+    private SwipeRepository swipeRepository;
+    private SwipedUserIndex swipedUserIndex;
+    private MatchEventBus matchEventBus;
+    private SimpleMeterRegistry meterRegistry;
+    private SwipeWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        swipeRepository = mock(SwipeRepository.class);
+        swipedUserIndex = mock(SwipedUserIndex.class);
+        matchEventBus = mock(MatchEventBus.class);
+        when(swipedUserIndex.isReady()).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    void offer_WhenDisabled_ShouldRequireSynchronousWrite() {
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, false, 10, 5, 10);
+        buffer.start();
+
+        assertFalse(buffer.offer(1L, 2L));
+        verifyNoInteractions(swipeRepository);
+    }
+
+    @Test
+    void offer_WhenOtherUserAlreadySwiped_ShouldRequireSynchronousWrite() {
+        when(swipedUserIndex.hasSwiped(2L, 1L)).thenReturn(true);
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, true, 10, 5, 10);
+        buffer.start();
+
+        assertFalse(buffer.offer(1L, 2L));
+        assertEquals(1.0, meterRegistry.get("mematch.swipes.buffer.synchronous").tag("reason", "possible_match").counter().count());
+    }
+
+    @Test
+    void offer_WhenOppositeSwipeIsStillBuffered_ShouldWaitForItThenRequireSynchronousWrite() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(swipeRepository.upsertBatch(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return new SwipeRepository.Outcome[]{SwipeRepository.Outcome.LIKED};
+        });
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, true, 10, 5, 10);
+        buffer.start();
+        assertTrue(buffer.offer(1L, 2L));
+        flushing.await();
+
+        CompletableFuture<Boolean> opposite = CompletableFuture.supplyAsync(() -> buffer.offer(2L, 1L));
+        Thread.sleep(50);
+        assertFalse(opposite.isDone(), "the opposite swipe must not answer before the first one is written");
+        release.countDown();
+
+        assertFalse(opposite.get(5, TimeUnit.SECONDS));
+        verify(swipeRepository, times(1)).upsertBatch(anyList());
+        assertEquals(1.0, meterRegistry.get("mematch.swipes.buffer.synchronous").tag("reason", "possible_match").counter().count());
+    }
+
+    @Test
+    void offer_WhenQueueFull_ShouldApplyBackpressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(swipeRepository.upsertBatch(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return new SwipeRepository.Outcome[]{SwipeRepository.Outcome.LIKED};
+        });
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, true, 2, 1, 10);
+        buffer.start();
+
+        // The writer takes the first swipe and blocks in its flush, so the next ones stay queued
+        assertTrue(buffer.offer(1L, 2L));
+        while (buffer.queuedCount() > 0) {
+            Thread.sleep(1);
+        }
+        assertTrue(buffer.offer(1L, 3L));
+        assertTrue(buffer.offer(1L, 4L));
+        assertFalse(buffer.offer(1L, 5L));
+        assertEquals(2.0, meterRegistry.get("mematch.swipes.buffer.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("mematch.swipes.buffer.synchronous").tag("reason", "queue_full").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void accepted_ShouldBeGroupCommittedAndRecordedInIndex() throws InterruptedException {
+        List<List<long[]>> flushed = new ArrayList<>();
+        when(swipeRepository.upsertBatch(anyList())).thenAnswer(invocation -> {
+            List<long[]> batch = new ArrayList<>(invocation.getArgument(0));
+            synchronized (flushed) {
+                flushed.add(batch);
+            }
+            SwipeRepository.Outcome[] outcomes = new SwipeRepository.Outcome[batch.size()];
+            java.util.Arrays.fill(outcomes, SwipeRepository.Outcome.LIKED);
+            return outcomes;
+        });
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, true, 100, 50, 20);
+        buffer.start();
+
+        for (long liked = 2; liked <= 11; liked++) {
+            assertTrue(buffer.offer(1L, liked));
+        }
+        buffer.stop();
+
+        int written;
+        synchronized (flushed) {
+            written = flushed.stream().mapToInt(List::size).sum();
+            assertTrue(flushed.size() < 10, "swipes should share commits");
+        }
+        assertEquals(10, written);
+        verify(swipedUserIndex, times(1)).recordSwipe(1L, 2L, false);
+        verify(swipedUserIndex, times(1)).recordSwipe(1L, 11L, false);
+        assertTrue(meterRegistry.get("mematch.swipes.buffer.flush").timer().count() >= 1);
+    }
+
+    @Test
+    void flush_WhenMatchCompleted_ShouldRecordMatchFromFirstLikersSide() {
+        when(swipeRepository.upsertBatch(anyList())).thenReturn(new SwipeRepository.Outcome[]{SwipeRepository.Outcome.MATCHED});
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, true, 10, 5, 10);
+
+        buffer.flush(List.<long[]>of(new long[]{1L, 2L}));
+
+        verify(swipedUserIndex, times(1)).recordSwipe(2L, 1L, true);
+        verify(matchEventBus, times(1)).publish(any(MatchEvent.MatchCreated.class));
+    }
+
+    @Test
+    void flush_WhenOneSwipeFails_ShouldStillWriteTheRestOfTheBatch() {
+        when(swipeRepository.upsertBatch(anyList())).thenThrow(new IllegalStateException("fk_match_user1"));
+        when(swipeRepository.swipe(1L, 2L)).thenReturn(new SwipeRepository.SwipeResult(10L, 1L, 2L, false, SwipeRepository.Outcome.LIKED));
+        when(swipeRepository.swipe(9L, 3L)).thenThrow(new IllegalStateException("fk_match_user1"));
+        when(swipeRepository.swipe(4L, 3L)).thenReturn(new SwipeRepository.SwipeResult(11L, 3L, 4L, true, SwipeRepository.Outcome.MATCHED));
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, true, 10, 5, 10);
+
+        buffer.flush(List.of(new long[]{1L, 2L}, new long[]{9L, 3L}, new long[]{4L, 3L}));
+
+        verify(swipeRepository, times(1)).upsertBatch(anyList());
+        verify(swipeRepository, times(SwipeWriteBuffer.MAX_FLUSH_ATTEMPTS - 1)).swipe(9L, 3L);
+        verify(swipedUserIndex, times(1)).recordSwipe(1L, 2L, false);
+        verify(swipedUserIndex, times(1)).recordSwipe(3L, 4L, true);
+        verify(swipedUserIndex, never()).recordSwipe(eq(9L), anyLong(), anyBoolean());
+        assertEquals(1.0, meterRegistry.get("mematch.swipes.buffer.dropped").counter().count());
+    }
+
+    @Test
+    void flush_WhenDatabaseKeepsFailing_ShouldRetryEachSwipeThenDrop() {
+        when(swipeRepository.upsertBatch(anyList())).thenThrow(new IllegalStateException("down"));
+        when(swipeRepository.swipe(anyLong(), anyLong())).thenThrow(new IllegalStateException("down"));
+        buffer = new SwipeWriteBuffer(swipeRepository, swipedUserIndex, matchEventBus, meterRegistry, true, 10, 5, 10);
+
+        buffer.flush(List.of(new long[]{1L, 2L}, new long[]{1L, 3L}));
+
+        verify(swipeRepository, times(1)).upsertBatch(anyList());
+        verify(swipeRepository, times(2 * (SwipeWriteBuffer.MAX_FLUSH_ATTEMPTS - 1))).swipe(anyLong(), anyLong());
+        assertEquals(2.0, meterRegistry.get("mematch.swipes.buffer.dropped").counter().count());
+        verify(swipedUserIndex, never()).recordSwipe(anyLong(), anyLong(), anyBoolean());
+    }
+}
@@ -180,4 +180,62 @@ class ImageUrlTest {
 
         assertEquals("https://example.com/image.jpg", imageUrl.toString());
     }
-}
\ No newline at end of file
+}
+
+// PageCursor Value Object Tests
+class PageCursorTest {
+
+    @Test
+    void encodeAndDecode_ShouldRoundTripValues() {
+        PageCursor cursor = PageCursor.of(42L, -7L);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode(), 2);
+
+        assertEquals(cursor, decoded);
+        assertEquals(42L, decoded.get(0));
+        assertEquals(-7L, decoded.get(1));
+    }
+
+    @Test
+    void decode_WithWrongNumberOfParts_ShouldThrowException() {
+        String token = PageCursor.of(1L, 2L).encode();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> PageCursor.decode(token, 1));
+    }
+
+    @Test
+    void decode_WithGarbage_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> PageCursor.decode("%%%", 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> PageCursor.decode(null, 1));
+    }
+}
+
+// HumourTag mask Tests
+class HumourTagTest {
+
+    @Test
+    void maskOf_ShouldSetOneBitPerTag() {
+        int mask = HumourTag.maskOf(java.util.List.of(HumourTag.DARK_HUMOUR, HumourTag.PUNS, HumourTag.PUNS));
+
+        assertEquals(2, Integer.bitCount(mask));
+        assertNotEquals(0, mask & HumourTag.DARK_HUMOUR.bit());
+        assertNotEquals(0, mask & HumourTag.PUNS.bit());
+    }
+
+    @Test
+    void maskOf_WithNull_ShouldReturnZero() {
+        assertEquals(0, HumourTag.maskOf(null));
+    }
+
+    @Test
+    void compatibility_ShouldCountSharedTags() {
+        int preferences = HumourTag.maskOf(java.util.List.of(HumourTag.IRONY, HumourTag.SARCASM, HumourTag.PUNS));
+        int tags = HumourTag.maskOf(java.util.List.of(HumourTag.IRONY, HumourTag.PUNS, HumourTag.CATS_MEMES));
+
+        assertEquals(2, HumourTag.compatibility(preferences, tags));
+        assertEquals(0, HumourTag.compatibility(0, tags));
+    }
+}
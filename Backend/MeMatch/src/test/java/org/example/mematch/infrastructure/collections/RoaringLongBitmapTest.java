@@ -0,0 +1,104 @@
+package org.example.mematch.infrastructure.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoaringLongBitmapTest {
+
+    @Test
+    void addAndContains_ShouldTrackValuesAcrossContainers() {
+        RoaringLongBitmap bitmap = new RoaringLongBitmap();
+
+        assertTrue(bitmap.add(1L));
+        assertTrue(bitmap.add(70_000L));
+        assertTrue(bitmap.add(5_000_000_000L));
+        assertFalse(bitmap.add(1L));
+
+        assertTrue(bitmap.contains(1L));
+        assertTrue(bitmap.contains(70_000L));
+        assertTrue(bitmap.contains(5_000_000_000L));
+        assertFalse(bitmap.contains(2L));
+        assertFalse(bitmap.contains(-1L));
+        assertEquals(3, bitmap.cardinality());
+    }
+
+    @Test
+    void remove_ShouldDropValuesAndEmptyContainers() {
+        RoaringLongBitmap bitmap = new RoaringLongBitmap();
+        bitmap.add(3L);
+        bitmap.add(100_000L);
+
+        assertTrue(bitmap.remove(100_000L));
+        assertFalse(bitmap.remove(100_000L));
+
+        assertFalse(bitmap.contains(100_000L));
+        assertTrue(bitmap.contains(3L));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    void denseContainer_ShouldConvertToBitmapAndBack() {
+        RoaringLongBitmap bitmap = new RoaringLongBitmap();
+        for (long i = 0; i < 10_000; i++) {
+            bitmap.add(i * 2);
+        }
+        long denseBytes = bitmap.sizeInBytes();
+
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(bitmap.contains(i * 2));
+            assertFalse(bitmap.contains(i * 2 + 1));
+        }
+        for (long i = 100; i < 10_000; i++) {
+            bitmap.remove(i * 2);
+        }
+
+        assertEquals(100, bitmap.cardinality());
+        assertTrue(bitmap.contains(198L));
+        assertFalse(bitmap.contains(200L));
+        assertTrue(bitmap.sizeInBytes() < denseBytes);
+    }
+
+    @Test
+    void copy_ShouldBeIndependent() {
+        RoaringLongBitmap bitmap = new RoaringLongBitmap();
+        bitmap.add(7L);
+        RoaringLongBitmap copy = bitmap.copy();
+
+        bitmap.add(8L);
+        copy.remove(7L);
+
+        assertTrue(bitmap.contains(7L));
+        assertFalse(copy.contains(7L));
+        assertFalse(copy.contains(8L));
+    }
+
+    @Test
+    void randomOperations_ShouldMatchHashSet() {
+        Random random = new Random(7);
+        RoaringLongBitmap bitmap = new RoaringLongBitmap();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long value = random.nextInt(200_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(value), bitmap.remove(value));
+            } else {
+                assertEquals(expected.add(value), bitmap.add(value));
+            }
+        }
+
+        assertEquals(expected.size(), bitmap.cardinality());
+        for (long value = 0; value < 200_000; value++) {
+            assertEquals(expected.contains(value), bitmap.contains(value));
+        }
+    }
+
+    @Test
+    void add_WithNegativeValue_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new RoaringLongBitmap().add(-5L));
+    }
+}
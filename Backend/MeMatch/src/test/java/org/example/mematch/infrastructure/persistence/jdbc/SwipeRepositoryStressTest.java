@@ -0,0 +1,234 @@
+package org.example.mematch.infrastructure.persistence.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.mematch.infrastructure.config.DatabaseInitializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of simultaneous opposing swipes at a real PostgreSQL database and checks that
+ * every pair ends up with exactly one matched row. Needs a scratch database, e.g.
+ * MEMATCH_STRESS_DB_URL=jdbc:postgresql://localhost:5433/mematch_stress (user/password from
+ * MEMATCH_STRESS_DB_USER / MEMATCH_STRESS_DB_PASSWORD, default postgres/1234).
+ */
+@EnabledIfEnvironmentVariable(named = "MEMATCH_STRESS_DB_URL", matches = ".+")
+class SwipeRepositoryStressTest {
+
+    private static final int PAIRS = 2000;
+    private static final int THREADS = 32;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SwipeRepository swipeRepository;
+    private long[] userIds;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getenv("MEMATCH_STRESS_DB_URL"));
+        dataSource.setUsername(envOr("MEMATCH_STRESS_DB_USER", "postgres"));
+        dataSource.setPassword(envOr("MEMATCH_STRESS_DB_PASSWORD", "1234"));
+        dataSource.setMaximumPoolSize(THREADS);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        new DatabaseInitializer(jdbcTemplate).initializeDatabase();
+        swipeRepository = new SwipeRepository(jdbcTemplate);
+
+        String prefix = "stress" + System.nanoTime() % 1_000_000_000L + "_";
+        userIds = new long[PAIRS * 2];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = jdbcTemplate.queryForObject(
+                    "INSERT INTO users (username, email, password_hash) VALUES (?, ?, 'x') RETURNING id",
+                    Long.class, prefix + i, prefix + i + "@stress.test");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (userIds != null) {
+            for (long id : userIds) {
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+            }
+        }
+        dataSource.close();
+    }
+
+    @Test
+    void opposingSwipes_ShouldAlwaysProduceExactlyOneMatchPerPair() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SwipeRepository.SwipeResult>> forward = new ArrayList<>();
+        List<Future<SwipeRepository.SwipeResult>> backward = new ArrayList<>();
+        try {
+            for (int p = 0; p < PAIRS; p++) {
+                long a = userIds[2 * p];
+                long b = userIds[2 * p + 1];
+                forward.add(executor.submit(() -> {
+                    start.await();
+                    return swipeRepository.swipe(a, b);
+                }));
+                backward.add(executor.submit(() -> {
+                    start.await();
+                    return swipeRepository.swipe(b, a);
+                }));
+            }
+            start.countDown();
+
+            for (int p = 0; p < PAIRS; p++) {
+                SwipeRepository.SwipeResult first = forward.get(p).get();
+                SwipeRepository.SwipeResult second = backward.get(p).get();
+                // One swipe stored the like, the other turned it into the match
+                assertEquals(first.matchId(), second.matchId());
+                assertEquals(1, (first.outcome() == SwipeRepository.Outcome.MATCHED ? 1 : 0)
+                        + (second.outcome() == SwipeRepository.Outcome.MATCHED ? 1 : 0));
+                assertEquals(1, (first.outcome() == SwipeRepository.Outcome.LIKED ? 1 : 0)
+                        + (second.outcome() == SwipeRepository.Outcome.LIKED ? 1 : 0));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int p = 0; p < PAIRS; p++) {
+            long a = userIds[2 * p];
+            long b = userIds[2 * p + 1];
+            List<Boolean> rows = jdbcTemplate.queryForList(
+                    "SELECT matched FROM matches WHERE (user1_id = ? AND user2_id = ?) OR (user1_id = ? AND user2_id = ?)",
+                    Boolean.class, a, b, b, a);
+            assertEquals(List.of(true), rows);
+        }
+        // The counter trigger saw every like and match exactly once
+        UserMatchCountRepository counts = new UserMatchCountRepository(jdbcTemplate);
+        for (long id : userIds) {
+            assertEquals(new UserMatchCountRepository.Counts(1, 0, 0), counts.findByUser(id));
+        }
+    }
+
+    @Test
+    void reconcileRange_ShouldFixDriftedCounters() {
+        long a = userIds[0];
+        long b = userIds[1];
+        swipeRepository.swipe(a, b);
+        jdbcTemplate.update("UPDATE user_match_counts SET incoming_likes = 7 WHERE user_id = ?", b);
+        UserMatchCountRepository counts = new UserMatchCountRepository(jdbcTemplate);
+
+        int corrected = counts.reconcileRange(Math.min(a, b), Math.max(a, b));
+
+        assertEquals(1, corrected);
+        assertEquals(new UserMatchCountRepository.Counts(0, 1, 0), counts.findByUser(a));
+        assertEquals(new UserMatchCountRepository.Counts(0, 0, 1), counts.findByUser(b));
+    }
+
+    @Test
+    void repeatedSwipe_ShouldLeaveRowUnchanged() {
+        long a = userIds[0];
+        long b = userIds[1];
+
+        SwipeRepository.SwipeResult liked = swipeRepository.swipe(a, b);
+        SwipeRepository.SwipeResult again = swipeRepository.swipe(a, b);
+
+        assertEquals(SwipeRepository.Outcome.LIKED, liked.outcome());
+        assertEquals(SwipeRepository.Outcome.UNCHANGED, again.outcome());
+        assertEquals(liked.matchId(), again.matchId());
+        assertFalse(again.matched());
+    }
+
+    @Test
+    void swipeAll_ShouldResolveExistingPairsAndReportNewMatches() {
+        long liker = userIds[0];
+        swipeRepository.swipe(userIds[1], liker); // pending like towards the liker
+        swipeRepository.swipe(liker, userIds[2]); // liker already liked this one
+
+        List<SwipeRepository.SwipeResult> results = swipeRepository.swipeAll(liker,
+                new long[]{userIds[1], userIds[2], userIds[3], -1L});
+
+        assertEquals(3, results.size());
+        for (SwipeRepository.SwipeResult result : results) {
+            long other = result.user1Id() == liker ? result.user2Id() : result.user1Id();
+            SwipeRepository.Outcome expected = other == userIds[1] ? SwipeRepository.Outcome.MATCHED
+                    : other == userIds[2] ? SwipeRepository.Outcome.UNCHANGED : SwipeRepository.Outcome.LIKED;
+            assertEquals(expected, result.outcome());
+        }
+    }
+
+    @Test
+    void upsertBatch_ShouldResolveRepeatedAndOpposingSwipesWithinOneBatch() {
+        long a = userIds[0];
+        long b = userIds[1];
+        long c = userIds[2];
+
+        SwipeRepository.Outcome[] outcomes = swipeRepository.upsertBatch(List.of(
+                new long[]{a, b}, new long[]{a, b}, new long[]{b, a}, new long[]{a, c}, new long[]{a, -1L}, new long[]{-1L, c}));
+
+        assertArrayEquals(new SwipeRepository.Outcome[]{
+                SwipeRepository.Outcome.LIKED, SwipeRepository.Outcome.UNCHANGED, SwipeRepository.Outcome.MATCHED,
+                SwipeRepository.Outcome.LIKED, SwipeRepository.Outcome.UNCHANGED, SwipeRepository.Outcome.UNCHANGED}, outcomes);
+    }
+
+    @Test
+    void deleteBatch_ShouldArchiveOnlyUnansweredLikesOlderThanTheCutoff() {
+        long a = userIds[0];
+        long b = userIds[1];
+        long c = userIds[2];
+        long stale = swipeRepository.swipe(a, b).matchId();
+        swipeRepository.swipe(a, c);
+        jdbcTemplate.update("UPDATE matches SET created_at = created_at - INTERVAL '1 year' WHERE id = ?", stale);
+        StaleLikeRepository staleLikes = new StaleLikeRepository(jdbcTemplate);
+
+        StaleLikeRepository.Batch batch = staleLikes.deleteBatch(
+                java.time.LocalDateTime.now().minusDays(1), null, 0, 1000, true);
+
+        assertTrue(batch.removed().stream().anyMatch(like -> like[0] == stale && like[1] == a && like[2] == b));
+        assertFalse(batch.removed().stream().anyMatch(like -> like[2] == c));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM matches_archive WHERE id = ?", Integer.class, stale));
+        assertEquals(new UserMatchCountRepository.Counts(0, 1, 0), new UserMatchCountRepository(jdbcTemplate).findByUser(a));
+    }
+
+    @Test
+    void concurrentDoubleTaps_ShouldStoreEachLikeOnce() throws Exception {
+        long owner = userIds[0];
+        long memeId = jdbcTemplate.queryForObject(
+                "INSERT INTO memes (user_id, image_url) VALUES (?, 'https://stress.test/meme.jpg') RETURNING id", Long.class, owner);
+        UserLikeRepository likes = new UserLikeRepository(jdbcTemplate);
+        int likers = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> taps = new ArrayList<>();
+        try {
+            for (int i = 0; i < likers * 2; i++) {
+                long liker = userIds[i % likers];
+                taps.add(executor.submit(() -> {
+                    start.await();
+                    return likes.insertIfAbsent(liker, memeId);
+                }));
+            }
+            start.countDown();
+            int inserted = 0;
+            for (Future<Boolean> tap : taps) {
+                inserted += tap.get() ? 1 : 0;
+            }
+            assertEquals(likers, inserted);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(likers, new MemeLikeCountRepository(jdbcTemplate).countByMeme(memeId));
+        assertTrue(likes.deleteIfPresent(userIds[0], memeId));
+        assertFalse(likes.deleteIfPresent(userIds[0], memeId));
+    }
+
+    private static String envOr(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? fallback : value;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.mematch.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.mematch.infrastructure.persistence.projection.MatchRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void stream_ShouldWriteOneJsonObjectPerLine() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.<MatchRow>stream(objectMapper, sink -> {
+            sink.accept(new MatchRow(1L, 2L, 3L, false, null));
+            sink.accept(new MatchRow(2L, 3L, 4L, true, LocalDateTime.of(2024, 5, 1, 12, 0)));
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        response.getBody().writeTo(out);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":1,\"user1Id\":2,\"user2Id\":3,\"matched\":false,\"matchedAt\":null}", lines[0]);
+        assertEquals("{\"id\":2,\"user1Id\":3,\"user2Id\":4,\"matched\":true,\"matchedAt\":\"2024-05-01T12:00:00\"}", lines[1]);
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    void stream_ShouldNotFlushPerRowOrCloseTheResponseStream() throws IOException {
+        CountingStream out = new CountingStream();
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.<MatchRow>stream(objectMapper, sink -> {
+            for (long id = 1; id <= 1000; id++) {
+                sink.accept(new MatchRow(id, 1L, 2L, false, null));
+            }
+        });
+
+        response.getBody().writeTo(out);
+
+        assertTrue(out.flushes < 100, "rows should be written in buffered chunks");
+        assertFalse(out.closed);
+    }
+
+    @Test
+    void stream_WhenClientDisconnects_ShouldPropagateIOException() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.<MatchRow>stream(objectMapper, sink -> {
+            for (long id = 1; id <= 100_000; id++) {
+                sink.accept(new MatchRow(id, 1L, 2L, false, null));
+            }
+        });
+
+        assertThrows(IOException.class, () -> response.getBody().writeTo(broken));
+    }
+
+    private static class CountingStream extends ByteArrayOutputStream {
+        int flushes;
+        boolean closed;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}